@@ -2,18 +2,26 @@ package project1;
 
 /**
  * Represents a calander with year month and day.
- * Provides validation, comparison and toString methods
+ * Provides validation, comparison, day and month arithmetic and toString methods
  * @author joshuaH, alexG
  */
 
 
 public class Date implements Comparable<Date> {
     /** year of date */
-    private int year;
+    private final int year;
     /** month of date */
-    private int month;
+    private final int month;
     /** day of date */
-    private int day;
+    private final int day;
+
+    /**
+     * Days since 1/1/1970, the primary representation used for comparison,
+     * hashing and arithmetic. The month, day and year fields above keep the
+     * date exactly as entered so an invalid date such as 2/30 still prints
+     * and validates as typed.
+     */
+    private final int epochDay;
 
     /**
      * Number of years in a quadrennial period, 4 years.
@@ -29,6 +37,34 @@ public class Date implements Comparable<Date> {
      */
     public static final int QUATERCENTENNIAL = 400;
 
+    /** Result of parse when the text is not in m/d/y digit form. */
+    public static final int PARSE_BAD_FORMAT = -1;
+
+    /** Result of parse when the text is well formed but not a calendar date. */
+    public static final int PARSE_NOT_A_DATE = -2;
+
+    /** Days in a full 400-year cycle of the Gregorian calendar. */
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    /** Days from 3/1/0000 to 1/1/1970, the epoch-day origin. */
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    /** Cached result of today(), replaced once the day rolls over. */
+    private static volatile Today today;
+
+    /** First year interned by default. */
+    public static final int DEFAULT_INTERN_FIRST_YEAR = 1970;
+
+    /** Last year interned by default. */
+    public static final int DEFAULT_INTERN_LAST_YEAR = 2099;
+
+    /** Largest span of years configureIntern accepts. */
+    private static final int MAX_INTERN_YEARS = 1000;
+
+    /** Shared instances handed out by of(), fromPacked() and ofEpochDay(). */
+    private static volatile InternTable interned =
+            new InternTable(DEFAULT_INTERN_FIRST_YEAR, DEFAULT_INTERN_LAST_YEAR);
+
     /**
      * Creates a new Date object
      * @param month, the month of date
@@ -39,6 +75,176 @@ public class Date implements Comparable<Date> {
         this.month = month;
         this.day = day;
         this.year = year;
+        this.epochDay = toEpochDay(year, month, day);
+    }
+
+    /**
+     * Creates a date whose epoch day is already known.
+     * @param month the month of the date
+     * @param day the day of the date
+     * @param year the year of the date
+     * @param epochDay the matching number of days since 1/1/1970
+     */
+    private Date(int month, int day, int year, int epochDay) {
+        this.month = month;
+        this.day = day;
+        this.year = year;
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * Returns the date for a month, day and year. Valid dates inside the
+     * interned year range come from a shared table, so equal dates are
+     * usually the same object; equals() is still the real test, as a race
+     * between threads filling the same slot can produce a second copy.
+     * Invalid dates are never interned.
+     * @param month the month of the date
+     * @param day the day of the date
+     * @param year the year of the date
+     * @return the matching date
+     */
+    public static Date of(int month, int day, int year) {
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(month, year)) {
+            return new Date(month, day, year);
+        }
+        int epochDay = toEpochDay(year, month, day);
+        InternTable t = interned;
+        int i = epochDay - t.firstDay;
+        if (i < 0 || i >= t.dates.length) return new Date(month, day, year, epochDay);
+        Date d = t.dates[i];
+        if (d == null) {
+            d = new Date(month, day, year, epochDay);
+            t.dates[i] = d;
+        }
+        return d;
+    }
+
+    /**
+     * Sets the span of years whose dates are interned, dropping the dates
+     * interned so far. The table costs one reference per day in the span.
+     * @param firstYear the first year to intern
+     * @param lastYear the last year to intern, inclusive
+     * @throws IllegalArgumentException if the span is empty or too large
+     */
+    public static void configureIntern(int firstYear, int lastYear) {
+        if (lastYear < firstYear || lastYear - firstYear >= MAX_INTERN_YEARS) {
+            throw new IllegalArgumentException("Invalid intern range: " + firstYear + "-" + lastYear);
+        }
+        interned = new InternTable(firstYear, lastYear);
+    }
+
+    /**
+     * Interned dates for a span of years, indexed by epoch day and filled
+     * as dates are first asked for.
+     */
+    private static final class InternTable {
+        /** Epoch day of 1/1 of the first year. */
+        final int firstDay;
+        /** One slot per day in the span. */
+        final Date[] dates;
+
+        /**
+         * Creates an empty table for the given years.
+         * @param firstYear the first year
+         * @param lastYear the last year, inclusive
+         */
+        InternTable(int firstYear, int lastYear) {
+            firstDay = toEpochDay(firstYear, 1, 1);
+            dates = new Date[toEpochDay(lastYear + 1, 1, 1) - firstDay];
+        }
+    }
+
+    /**
+     * Returns the date a given number of days after 1/1/1970, interned
+     * like of().
+     * @param epochDay days since 1/1/1970, negative for earlier dates
+     * @return the matching date
+     */
+    public static Date ofEpochDay(int epochDay) {
+        InternTable t = interned;
+        int i = epochDay - t.firstDay;
+        if (i < 0 || i >= t.dates.length) return civil(epochDay);
+        Date d = t.dates[i];
+        if (d == null) {
+            d = civil(epochDay);
+            t.dates[i] = d;
+        }
+        return d;
+    }
+
+    /**
+     * Creates the date a given number of days after 1/1/1970.
+     * @param epochDay days since 1/1/1970, negative for earlier dates
+     * @return a new date
+     */
+    private static Date civil(int epochDay) {
+        // civil-from-days over 400-year cycles that start on March 1
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(z, DAYS_PER_CYCLE);
+        int doe = z - era * DAYS_PER_CYCLE;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int d = doy - (153 * mp + 2) / 5 + 1;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        int y = yoe + era * QUATERCENTENNIAL + (m <= 2 ? 1 : 0);
+        return new Date(m, d, y, epochDay);
+    }
+
+    /**
+     * Counts the days from 1/1/1970 to a calendar date. Fields outside the
+     * calendar roll over into neighbouring months rather than failing.
+     * @param year the year
+     * @param month the month, 1 to 12
+     * @param day the day of the month
+     * @return days since 1/1/1970
+     */
+    private static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, QUATERCENTENNIAL);
+        int yoe = y - era * QUATERCENTENNIAL;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * DAYS_PER_CYCLE + doe - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Returns today's date in the default time zone. The value is cached
+     * until the next local midnight, so repeated calls allocate nothing.
+     * @return today's date
+     */
+    public static Date today() {
+        Today t = today;
+        long now = System.currentTimeMillis();
+        if (t == null || now < t.fromMillis || now >= t.untilMillis) {
+            t = new Today(now);
+            today = t;
+        }
+        return t.date;
+    }
+
+    /**
+     * Today's date together with the span of wall-clock time it is valid for.
+     */
+    private static final class Today {
+        /** Today's date. */
+        final Date date;
+        /** Local midnight starting today, in epoch milliseconds. */
+        final long fromMillis;
+        /** Local midnight starting tomorrow, in epoch milliseconds. */
+        final long untilMillis;
+
+        /**
+         * Works out the local date containing the given instant.
+         * @param nowMillis the current time in epoch milliseconds
+         */
+        Today(long nowMillis) {
+            java.time.ZoneId zone = java.time.ZoneId.systemDefault();
+            java.time.LocalDate local = java.time.Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+            date = ofEpochDay((int) local.toEpochDay());
+            fromMillis = local.atStartOfDay(zone).toInstant().toEpochMilli();
+            untilMillis = local.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
     }
 
     /**
@@ -74,26 +280,15 @@ public class Date implements Comparable<Date> {
         if (day < 1){
             return false;
         }
-
-        int daysInMonth;
-        switch (month) {
-            case 1: case 3: case 5: case 7: case 8: case 10: case 12:
-                daysInMonth = 31; break;
-            case 4: case 6: case 9: case 11:
-                daysInMonth = 30; break;
-            case 2:
-                daysInMonth = isLeap() ? 29 : 28; break;
-            default:
-                return false;
-        }
-        return day <= daysInMonth;
+        return day <= daysInMonth(month, year);
     }
 
     /**
      * checks if the year is a leap year
+     * @param year the year to check
      * @return true if it is
      */
-    private boolean isLeap() {
+    private static boolean isLeap(int year) {
         if (year % QUADRENNIAL != 0){
             return false;
         }
@@ -110,15 +305,135 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public int compareTo(Date other) {
-        if (this.year != other.year){
-            return this.year - other.year;
-        }
-        if (this.month != other.month){
-            return this.month - other.month;
-        }
+        if (epochDay != other.epochDay) return epochDay < other.epochDay ? -1 : 1;
+        // only dates outside the calendar share an epoch day with different fields
+        if (this.month != other.month) return this.month - other.month;
         return this.day - other.day;
     }
 
+    /**
+     * Parses an m/d/y date in place, without creating strings, arrays or
+     * exceptions, so it can sit in the inner loop of a bulk import.
+     * Month and day take one or two digits and the year one to four.
+     * @param s the text holding the date
+     * @param from index of the first character of the date
+     * @param to index one past the last character of the date
+     * @return the date packed as by packed(), which is never negative, or
+     *         PARSE_BAD_FORMAT or PARSE_NOT_A_DATE
+     */
+    public static int parse(CharSequence s, int from, int to) {
+        int i = from;
+        int n;
+        int month = 0;
+        for (n = 0; n <= 2 && i < to && isDigit(s.charAt(i)); n++) month = month * 10 + (s.charAt(i++) - '0');
+        if (n == 0 || n > 2 || i >= to || s.charAt(i++) != '/') return PARSE_BAD_FORMAT;
+        int day = 0;
+        for (n = 0; n <= 2 && i < to && isDigit(s.charAt(i)); n++) day = day * 10 + (s.charAt(i++) - '0');
+        if (n == 0 || n > 2 || i >= to || s.charAt(i++) != '/') return PARSE_BAD_FORMAT;
+        int year = 0;
+        for (n = 0; n <= 4 && i < to && isDigit(s.charAt(i)); n++) year = year * 10 + (s.charAt(i++) - '0');
+        if (n == 0 || n > 4 || i != to) return PARSE_BAD_FORMAT;
+
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(month, year)) return PARSE_NOT_A_DATE;
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /**
+     * Parses a whole string as an m/d/y date.
+     * @param s the text holding the date
+     * @return the packed date, or PARSE_BAD_FORMAT or PARSE_NOT_A_DATE
+     */
+    public static int parse(CharSequence s) {
+        return parse(s, 0, s.length());
+    }
+
+    /**
+     * Checks for an ASCII digit.
+     * @param c the character to check
+     * @return true if c is 0 through 9
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Returns the interned date for a value produced by packed() or parse().
+     * @param packed a non-negative packed date
+     * @return the matching date
+     */
+    public static Date fromPacked(int packed) {
+        return of((packed >>> 5) & 0xF, packed & 0x1F, packed >>> 9);
+    }
+
+    /**
+     * Packs the date into one int as year, month and day bit fields, in the
+     * same form parse() returns.
+     * @return the packed date, using the low 23 bits
+     */
+    public int packed() {
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /**
+     * Returns the number of days since 1/1/1970.
+     * @return the epoch day of this date
+     */
+    public int epochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Returns the date a number of days after this one.
+     * @param days the number of days to add, negative to go back
+     * @return the resulting date
+     */
+    public Date plusDays(int days) {
+        return days == 0 ? this : ofEpochDay(epochDay + days);
+    }
+
+    /**
+     * Returns the date a number of months after this one. The day is clamped
+     * to the end of the resulting month, so 1/31 plus one month is 2/28 or 2/29.
+     * @param months the number of months to add, negative to go back
+     * @return the resulting date, interned as by of()
+     */
+    public Date plusMonths(int months) {
+        if (months == 0) return this;
+        int total = year * 12 + (month - 1) + months;
+        int y = Math.floorDiv(total, 12);
+        int m = Math.floorMod(total, 12) + 1;
+        return of(m, Math.min(day, daysInMonth(m, y)), y);
+    }
+
+    /**
+     * Counts the days from this date to another one.
+     * @param other the later date
+     * @return the number of days, negative if other is earlier
+     */
+    public int daysUntil(Date other) {
+        return other.epochDay - epochDay;
+    }
+
+    /**
+     * Returns the number of days in a month.
+     * @param month the month, 1 to 12
+     * @param year the year
+     * @return the length of the month, or 0 if month is out of range
+     */
+    private static int daysInMonth(int month, int year) {
+        switch (month) {
+            case 1: case 3: case 5: case 7:
+            case 8: case 10: case 12:
+                return 31;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            case 2:
+                return isLeap(year) ? 29 : 28;
+            default:
+                return 0;
+        }
+    }
+
     /**
      * compares the contents of one date object to another to check if they are the same or not
      * @param obj   the reference object with which to compare.
@@ -126,11 +441,23 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public boolean equals(Object obj) {
+        if (this == obj){
+            return true;
+        }
         if (!(obj instanceof Date)){
             return false;
         }
         Date otherDate = (Date) obj;
-        return this.year == otherDate.year && this.month == otherDate.month && this.day == otherDate.day;
+        return this.epochDay == otherDate.epochDay && this.month == otherDate.month && this.day == otherDate.day;
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     * @return the epoch day of this date
+     */
+    @Override
+    public int hashCode() {
+        return epochDay;
     }
 
     /**
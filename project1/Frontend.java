@@ -1,6 +1,5 @@
 package project1;
 
-import java.util.Calendar;
 import java.util.Scanner;
 import java.util.StringTokenizer;
 
@@ -83,57 +82,27 @@ public class Frontend {
      * @return Date obj
      */
     private Date parseDate(String mmddyyyy) {
-        String[] p = mmddyyyy.split("/");
-        if (p.length != 3) return new Date(-1, -1, -1);
-        try {
-            int m = Integer.parseInt(p[0]);
-            int d = Integer.parseInt(p[1]);
-            int y = Integer.parseInt(p[2]);
-            return new Date(m, d, y);
-        } catch (Exception e) {
-            return new Date(-1, -1, -1);
-        }
+        int packed = Date.parse(mmddyyyy);
+        if (packed < 0) return new Date(-1, -1, -1);
+        return Date.fromPacked(packed);
     }
 
     /**
      * compares current date to another  date
      * @param date, Date obj
-     * @return
+     * @return negative if date is in the past, 0 if it is today, positive if in the future
      */
     private int compareToToday(Date date) {
-        Calendar now = Calendar.getInstance();
-        Calendar c = Calendar.getInstance();
-        c.set(Calendar.YEAR, date.getYear());
-        c.set(Calendar.MONTH, date.getMonth() - 1);
-        c.set(Calendar.DAY_OF_MONTH, date.getDay());
-        zeroTime(now); zeroTime(c);
-        return c.compareTo(now);
-    }
-
-    /**
-     * helper method that resets the time of a calander obj , to make sure only day month and year
-     * @param cal cal onject used to reset
-     */
-    private void zeroTime(Calendar cal) {
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
+        return date.compareTo(Date.today());
     }
 
     /**
      * checks to see if a date is beyond three months from the current date
      * @param begin, date that is being used to check if it is over 3 months
-     * @return
+     * @return true if begin is later than three months from today
      */
     private boolean beyondThreeMonths(Date begin) {
-        Calendar lim = Calendar.getInstance();
-        zeroTime(lim);
-        lim.add(Calendar.MONTH, 3);
-        Calendar b = Calendar.getInstance();
-        b.set(begin.getYear(), begin.getMonth() - 1, begin.getDay(), 0, 0, 0);
-        b.set(Calendar.MILLISECOND, 0);
-        return b.after(lim);
+        return begin.compareTo(Date.today().plusMonths(3)) > 0;
     }
 
     /**
@@ -143,14 +112,7 @@ public class Frontend {
      * @return the number of dats inbetween
      */
     private int daysBetweenInclusive(Date dayOne, Date dayTwo) {
-        Calendar ca = Calendar.getInstance();
-        ca.set(dayOne.getYear(), dayOne.getMonth() - 1, dayOne.getDay(), 0, 0, 0);
-        ca.set(Calendar.MILLISECOND, 0);
-        Calendar cb = Calendar.getInstance();
-        cb.set(dayTwo.getYear(), dayTwo.getMonth() - 1, dayTwo.getDay(), 0, 0, 0);
-        cb.set(Calendar.MILLISECOND, 0);
-        long diff = (cb.getTimeInMillis() - ca.getTimeInMillis()) / (24L * 60 * 60 * 1000);
-        return (int) diff + 1;
+        return dayOne.daysUntil(dayTwo) + 1;
     }
     /**
      * handles the add comand
@@ -1,4 +1,11 @@
 package project1;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 /**
  * Represents the collection of the bookings
  * stores the bookings in an array and uses methods add, cancel and print for ease
@@ -13,6 +20,17 @@ public class Reservation {
     private Booking[] bookings;
     /** The current number of bookings. */
     private int size;
+    /**
+     * For each employee, how many of their bookings cover each epoch day.
+     * Bookings are at most a week long, so each one touches at most seven entries.
+     */
+    private final EnumMap<Employee, TreeMap<Integer, Integer>> coverage = new EnumMap<>(Employee.class);
+    /** Bookings grouped by end epoch day, earliest first, for getEarliestEnd. */
+    private final TreeMap<Integer, ArrayList<Booking>> byEnd = new TreeMap<>();
+    /** Bookings grouped by plate and end date, for findByPlateEnd. */
+    private final HashMap<String, ArrayList<Booking>> byPlateEnd = new HashMap<>();
+    /** Bookings grouped by plate, begin date and end date, for findByPlateDates. */
+    private final HashMap<String, ArrayList<Booking>> byPlateDates = new HashMap<>();
 
     /**
      * creates a new reservation
@@ -54,6 +72,63 @@ public class Reservation {
     public void add(Booking booking) {
         if (size == bookings.length) grow();
         bookings[size++] = booking;
+        cover(booking, 1);
+        byEnd.computeIfAbsent(booking.getEnd().epochDay(), day -> new ArrayList<>()).add(booking);
+        String plate = booking.getVehicle().getPlate();
+        byPlateEnd.computeIfAbsent(key(plate, booking.getEnd()), k -> new ArrayList<>()).add(booking);
+        byPlateDates.computeIfAbsent(key(plate, booking.getBegin(), booking.getEnd()), k -> new ArrayList<>()).add(booking);
+    }
+
+    /**
+     * builds the lookup key for a plate and one or more dates, ignoring the case of the plate
+     * @param plate, the vehicle plate
+     * @param dates, the dates that are part of the key
+     * @return the key
+     */
+    private static String key(String plate, Date... dates) {
+        StringBuilder sb = new StringBuilder(plate.toUpperCase(Locale.ROOT));
+        for (Date d : dates) sb.append(' ').append(d.packed());
+        return sb.toString();
+    }
+
+    /**
+     * removes a booking from one of the grouped lookups
+     * @param groups, the lookup
+     * @param key, the key of the booking's group
+     * @param booking, the exact booking object to remove
+     */
+    private static <K> void ungroup(Map<K, ArrayList<Booking>> groups, K key, Booking booking) {
+        ArrayList<Booking> group = groups.get(key);
+        if (group == null) return;
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == booking) {
+                group.remove(i);
+                break;
+            }
+        }
+        if (group.isEmpty()) groups.remove(key);
+    }
+
+    /**
+     * adds to or takes from the employee's count of bookings on each day of a booking
+     * @param booking, booking whose days are counted
+     * @param delta, 1 when the booking is added and -1 when it is removed
+     */
+    private void cover(Booking booking, int delta) {
+        Employee emp = booking.getEmployee();
+        if (emp == null) return;
+        TreeMap<Integer, Integer> days = coverage.get(emp);
+        if (days == null) {
+            days = new TreeMap<>();
+            coverage.put(emp, days);
+        }
+        int last = booking.getEnd().epochDay();
+        for (int day = booking.getBegin().epochDay(); day <= last; day++) {
+            int count = days.getOrDefault(day, 0) + delta;
+            if (count == 0) days.remove(day);
+            else days.put(day, count);
+        }
+        if (days.isEmpty()) coverage.remove(emp);
     }
 
     /**
@@ -63,6 +138,12 @@ public class Reservation {
     public void remove(Booking booking) {
         int idx = find(booking);
         if (idx == NOT_FOUND) return;
+        Booking old = bookings[idx];
+        cover(old, -1);
+        ungroup(byEnd, old.getEnd().epochDay(), old);
+        String plate = old.getVehicle().getPlate();
+        ungroup(byPlateEnd, key(plate, old.getEnd()), old);
+        ungroup(byPlateDates, key(plate, old.getBegin(), old.getEnd()), old);
         bookings[idx] = bookings[size - 1];
         bookings[size - 1] = null;
         size--;
@@ -93,26 +174,16 @@ public class Reservation {
      * Find the specific booking by plate + begin + end, returns null if not found.
      */
     public Booking findByPlateDates(String plate, Date begin, Date end) {
-        for (int i = 0; i < size; i++) {
-            Booking b = bookings[i];
-            if (b.getVehicle().getPlate().equalsIgnoreCase(plate) && b.getBegin().equals(begin) && b.getEnd().equals(end)) {
-                return b;
-            }
-        }
-        return null;
+        ArrayList<Booking> group = byPlateDates.get(key(plate, begin, end));
+        return group == null ? null : group.get(0);
     }
 
     /**
      * Find booking by plate + END date only
      */
     public Booking findByPlateEnd(String plate, Date end) {
-        for (int i = 0; i < size; i++) {
-            Booking b = bookings[i];
-            if (b.getVehicle().getPlate().equalsIgnoreCase(plate) && b.getEnd().equals(end)) {
-                return b;
-            }
-        }
-        return null;
+        ArrayList<Booking> group = byPlateEnd.get(key(plate, end));
+        return group == null ? null : group.get(0);
     }
 
     /**
@@ -120,13 +191,7 @@ public class Reservation {
      */
     public Booking getEarliestEnd() {
         if (size == 0) return null;
-        int min = 0;
-        for (int i = 1; i < size; i++) {
-            if (bookings[i].getEnd().compareTo(bookings[min].getEnd()) < 0){
-                min = i;
-            }
-        }
-        return bookings[min];
+        return byEnd.firstEntry().getValue().get(0);
     }
 
     /**
@@ -147,6 +212,10 @@ public class Reservation {
      * Employee conflict if the employee has a booking that includes the *begin* date.
      */
     public boolean hasEmployeeBeginConflict(Employee emp, Date begin) {
+        if (emp != null) {
+            TreeMap<Integer, Integer> days = coverage.get(emp);
+            return days != null && days.containsKey(begin.epochDay());
+        }
         for (int i = 0; i < size; i++) {
             Booking b = bookings[i];
             if (b.getEmployee() != emp){
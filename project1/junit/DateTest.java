@@ -0,0 +1,263 @@
+package project1;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the project1 copy of Date against java.time.LocalDate.
+ * @author joshuaH, alexG
+ */
+public class DateTest {
+
+    /** First epoch day checked day by day: 1/1/-2000. */
+    private static final int FIRST_DAY = (int) LocalDate.of(-2000, 1, 1).toEpochDay();
+
+    /** Last epoch day checked day by day: 12/31/4000. */
+    private static final int LAST_DAY = (int) LocalDate.of(4000, 12, 31).toEpochDay();
+
+    /** An m/d/y date, for the reference parser. */
+    private static final Pattern DATE = Pattern.compile("([0-9]{1,2})/([0-9]{1,2})/([0-9]{1,4})");
+
+    /**
+     * Checks that a date has the fields and epoch day of a LocalDate.
+     * @param expected the LocalDate
+     * @param d the date
+     */
+    private static void assertSameDay(LocalDate expected, Date d) {
+        assertEquals(expected.getYear(), d.getYear(), expected.toString());
+        assertEquals(expected.getMonthValue(), d.getMonth(), expected.toString());
+        assertEquals(expected.getDayOfMonth(), d.getDay(), expected.toString());
+        assertEquals(expected.toEpochDay(), d.epochDay(), expected.toString());
+    }
+
+    @Test
+    public void testEpochDaysMatchLocalDate() {
+        Date previous = null;
+        for (int e = FIRST_DAY; e <= LAST_DAY; e++) {
+            LocalDate expected = LocalDate.ofEpochDay(e);
+            Date d = Date.ofEpochDay(e);
+            assertSameDay(expected, d);
+            assertTrue(d.isValid(), expected.toString());
+            Date built = new Date(expected.getMonthValue(), expected.getDayOfMonth(), expected.getYear());
+            assertEquals(e, built.epochDay(), "Epoch day of " + expected);
+            assertEquals(d, built);
+            assertEquals(d.hashCode(), built.hashCode());
+            if (previous != null) {
+                assertTrue(previous.compareTo(d) < 0, "Order at " + expected);
+                assertEquals(1, previous.daysUntil(d));
+            }
+            previous = d;
+        }
+    }
+
+    @Test
+    public void testLeapYears() {
+        for (int year = -800; year <= 2800; year++) {
+            boolean leap = LocalDate.of(year, 1, 1).isLeapYear();
+            assertEquals(leap, new Date(2, 29, year).isValid(), "2/29/" + year);
+            assertTrue(new Date(2, 28, year).isValid());
+            assertFalse(new Date(2, 30, year).isValid());
+        }
+        assertFalse(new Date(2, 29, 1900).isValid(), "Centuries are not leap years");
+        assertTrue(new Date(2, 29, 2000).isValid(), "Unless divisible by 400");
+    }
+
+    @Test
+    public void testFieldsOutsideTheCalendarRollOver() {
+        for (int year = 1896; year <= 1904; year++) {
+            for (int month = 1; month <= 12; month++) {
+                LocalDate first = LocalDate.of(year, month, 1);
+                for (int day = 1; day <= 40; day++) {
+                    Date d = new Date(month, day, year);
+                    assertEquals(first.toEpochDay() + day - 1, d.epochDay(), month + "/" + day + "/" + year);
+                    assertEquals(day <= first.lengthOfMonth(), d.isValid(), month + "/" + day + "/" + year);
+                }
+            }
+            assertEquals(LocalDate.of(year + 1, 1, 1).toEpochDay(), new Date(13, 1, year).epochDay());
+            assertEquals(LocalDate.of(year - 1, 12, 1).toEpochDay(), new Date(0, 1, year).epochDay());
+            assertFalse(new Date(13, 1, year).isValid());
+            assertFalse(new Date(0, 1, year).isValid());
+            assertFalse(new Date(1, 0, year).isValid());
+        }
+        Date rolled = new Date(2, 30, 2021);
+        Date real = Date.of(3, 2, 2021);
+        assertEquals(real.epochDay(), rolled.epochDay());
+        assertNotEquals(real, rolled, "A date outside the calendar is not equal to the day it rolls to");
+        assertTrue(rolled.compareTo(real) < 0, "Ties on the epoch day are broken by month");
+    }
+
+    @Test
+    public void testPlusDays() {
+        Random r = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            int e = FIRST_DAY + r.nextInt(LAST_DAY - FIRST_DAY);
+            int days = r.nextInt(20001) - 10000;
+            assertSameDay(LocalDate.ofEpochDay(e).plusDays(days), Date.ofEpochDay(e).plusDays(days));
+        }
+        Date d = Date.of(5, 6, 2024);
+        assertSame(d, d.plusDays(0));
+    }
+
+    @Test
+    public void testPlusMonths() {
+        for (int year : new int[] {-4, 1600, 1899, 1900, 1999, 2000, 2023, 2024, 2099, 2100}) {
+            for (int month = 1; month <= 12; month++) {
+                int length = LocalDate.of(year, month, 1).lengthOfMonth();
+                // the last days of the month are the ones clamped
+                for (int day = Math.max(1, length - 3); day <= length; day++) {
+                    LocalDate start = LocalDate.of(year, month, day);
+                    Date d = Date.of(month, day, year);
+                    for (int months = -30; months <= 30; months++) {
+                        assertSameDay(start.plusMonths(months), d.plusMonths(months));
+                    }
+                }
+            }
+        }
+        assertSameDay(LocalDate.of(2024, 2, 29), Date.of(1, 31, 2024).plusMonths(1));
+        assertSameDay(LocalDate.of(2023, 2, 28), Date.of(1, 31, 2023).plusMonths(1));
+        assertSameDay(LocalDate.of(2023, 2, 28), Date.of(2, 29, 2024).plusMonths(-12));
+        assertSameDay(LocalDate.of(2000, 2, 29), Date.of(2, 29, 1996).plusMonths(48));
+        assertSameDay(LocalDate.of(2100, 2, 28), Date.of(2, 29, 2096).plusMonths(48));
+        Date d = Date.of(5, 6, 2024);
+        assertSame(d, d.plusMonths(0));
+    }
+
+    /**
+     * Parses a date the slow way, for checking parse.
+     * @param s the text
+     * @return the packed date, or PARSE_BAD_FORMAT or PARSE_NOT_A_DATE
+     */
+    private static int referenceParse(String s) {
+        Matcher m = DATE.matcher(s);
+        if (!m.matches()) return Date.PARSE_BAD_FORMAT;
+        int month = Integer.parseInt(m.group(1));
+        int day = Integer.parseInt(m.group(2));
+        int year = Integer.parseInt(m.group(3));
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return Date.PARSE_NOT_A_DATE;
+        }
+        return (year << 9) | (month << 5) | day;
+    }
+
+    @Test
+    public void testParseEveryDay() {
+        int first = (int) LocalDate.of(1899, 1, 1).toEpochDay();
+        int last = (int) LocalDate.of(2101, 12, 31).toEpochDay();
+        for (int e = first; e <= last; e++) {
+            LocalDate expected = LocalDate.ofEpochDay(e);
+            int m = expected.getMonthValue();
+            int d = expected.getDayOfMonth();
+            int y = expected.getYear();
+            int packed = Date.parse(m + "/" + d + "/" + y);
+            assertTrue(packed >= 0, expected.toString());
+            assertEquals(Date.of(m, d, y).packed(), packed);
+            assertSameDay(expected, Date.fromPacked(packed));
+            assertEquals(packed, Date.parse(String.format("%02d/%02d/%04d", m, d, y)), "Leading zeros");
+        }
+    }
+
+    @Test
+    public void testParseLeapDays() {
+        assertTrue(Date.parse("2/29/2024") >= 0);
+        assertTrue(Date.parse("2/29/2000") >= 0);
+        assertEquals(Date.PARSE_NOT_A_DATE, Date.parse("2/29/2023"));
+        assertEquals(Date.PARSE_NOT_A_DATE, Date.parse("2/29/1900"));
+        assertEquals(Date.PARSE_NOT_A_DATE, Date.parse("2/30/2024"));
+    }
+
+    @Test
+    public void testParseRejects() {
+        for (String s : new String[] {"0/1/2020", "13/1/2020", "99/1/2020", "1/0/2020", "1/32/2020",
+                "4/31/2020", "00/10/2020", "6/00/2020"}) {
+            assertEquals(Date.PARSE_NOT_A_DATE, Date.parse(s), s);
+        }
+        for (String s : new String[] {"", "/", "//", "1/2", "1/2/", "/2/2020", "1//2020", "1/2/2020/",
+                "123/1/2020", "1/123/2020", "1/1/20201", " 1/1/2020", "1/1/2020 ", "1 /1/2020", "1/ 1/2020",
+                "1/1/ 2020", "1-1-2020", "a/1/2020", "1/1/2020x", "+1/1/2020", "-1/1/2020",
+                "\u0661/1/2020", "1/\uFF11/2020"}) {
+            assertEquals(Date.PARSE_BAD_FORMAT, Date.parse(s), s);
+        }
+    }
+
+    @Test
+    public void testParseRange() {
+        String line = "12345S 2/29/2024 Ford";
+        assertEquals(Date.of(2, 29, 2024).packed(), Date.parse(line, 7, 16));
+        assertEquals(Date.PARSE_BAD_FORMAT, Date.parse(line, 6, 16), "A leading space is not skipped");
+        assertEquals(Date.PARSE_BAD_FORMAT, Date.parse(line, 7, 17), "A trailing space is not skipped");
+        assertEquals(Date.PARSE_NOT_A_DATE, Date.parse(line, 7, 15), "Only 2/29/202 is read, not a leap year");
+        assertEquals(Date.PARSE_BAD_FORMAT, Date.parse(line, 7, 7), "An empty range");
+        StringBuilder sb = new StringBuilder("x1/1/2020x");
+        assertEquals(Date.of(1, 1, 2020).packed(), Date.parse(sb, 1, 9), "Any CharSequence");
+    }
+
+    @Test
+    public void testParseRandomText() {
+        Random r = new Random(12);
+        String alphabet = "0123456789//// a";
+        for (int i = 0; i < 200000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int n = r.nextInt(12); n > 0; n--) sb.append(alphabet.charAt(r.nextInt(alphabet.length())));
+            String s = sb.toString();
+            assertEquals(referenceParse(s), Date.parse(s), s);
+        }
+    }
+
+    @Test
+    public void testInternedInRange() {
+        Date d = Date.of(2, 29, 2024);
+        assertSame(d, Date.of(2, 29, 2024));
+        assertSame(d, Date.ofEpochDay(d.epochDay()));
+        assertSame(d, Date.fromPacked(Date.parse("2/29/2024")));
+        assertSame(d, Date.of(2, 28, 2024).plusDays(1));
+        assertSame(d, Date.of(1, 29, 2024).plusMonths(1));
+        assertSame(Date.of(1, 1, Date.DEFAULT_INTERN_FIRST_YEAR), Date.ofEpochDay(0));
+        assertSame(Date.of(12, 31, Date.DEFAULT_INTERN_LAST_YEAR), Date.of(12, 31, Date.DEFAULT_INTERN_LAST_YEAR));
+    }
+
+    @Test
+    public void testNotInternedOutsideRange() {
+        Date before = Date.of(12, 31, Date.DEFAULT_INTERN_FIRST_YEAR - 1);
+        Date after = Date.of(1, 1, Date.DEFAULT_INTERN_LAST_YEAR + 1);
+        assertNotSame(before, Date.of(12, 31, Date.DEFAULT_INTERN_FIRST_YEAR - 1));
+        assertNotSame(after, Date.ofEpochDay(after.epochDay()));
+        assertEquals(before, Date.ofEpochDay(before.epochDay()), "Copies are still equal");
+        assertEquals(after, Date.of(1, 1, Date.DEFAULT_INTERN_LAST_YEAR + 1));
+    }
+
+    @Test
+    public void testInvalidDatesNotInterned() {
+        Date rolled = Date.of(2, 30, 2021);
+        assertNotSame(rolled, Date.of(2, 30, 2021));
+        assertFalse(rolled.isValid());
+        Date real = Date.of(3, 2, 2021);
+        assertTrue(real.isValid(), "An invalid date does not take the slot of the day it rolls to");
+        assertEquals(3, real.getMonth());
+        assertSame(real, Date.ofEpochDay(rolled.epochDay()));
+        assertNotSame(Date.of(13, 1, 2021), Date.of(13, 1, 2021));
+    }
+
+    @Test
+    public void testConfigureIntern() {
+        try {
+            assertThrows(IllegalArgumentException.class, () -> Date.configureIntern(2000, 1999));
+            assertThrows(IllegalArgumentException.class, () -> Date.configureIntern(1000, 2000),
+                    "At most 1000 years");
+            Date.configureIntern(2100, 2110);
+            assertSame(Date.of(1, 1, 2100), Date.of(1, 1, 2100));
+            assertSame(Date.of(12, 31, 2110), Date.ofEpochDay(Date.of(12, 31, 2110).epochDay()));
+            assertNotSame(Date.of(12, 31, 2099), Date.of(12, 31, 2099));
+            assertNotSame(Date.of(1, 1, 2111), Date.of(1, 1, 2111));
+        } finally {
+            Date.configureIntern(Date.DEFAULT_INTERN_FIRST_YEAR, Date.DEFAULT_INTERN_LAST_YEAR);
+        }
+        assertSame(Date.of(1, 1, 2000), Date.of(1, 1, 2000));
+    }
+}
@@ -0,0 +1,112 @@
+package bench;
+
+import org.example.project3_v3.Booking;
+import org.example.project3_v3.Campus;
+import org.example.project3_v3.Employee;
+import org.example.project3_v3.Fleet;
+import org.example.project3_v3.Make;
+import org.example.project3_v3.Reservation;
+import org.example.project3_v3.Vehicle;
+import org.example.project3_v3.VehicleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Date;
+import util.List;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to list the free vehicles of one type at a campus for a week, with
+ * Reservation.findAvailable and by checking each vehicle at the campus
+ * with isVehicleAvailable.
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    /** Number of vehicles in the fleet. */
+    @Param({"5000", "50000"})
+    public int vehicles;
+
+    /** Bookings per vehicle, spread over one year. */
+    @Param({"2"})
+    public int bookingsPerVehicle;
+
+    /** The fleet. */
+    private Fleet fleet;
+
+    /** The bookings. */
+    private Reservation reservations;
+
+    /** First day of the query window. */
+    private Date begin;
+
+    /** Last day of the query window. */
+    private Date end;
+
+    /**
+     * Builds the fleet and books every vehicle a few times for up to a week.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(5);
+        Campus[] campuses = Campus.values();
+        Employee[] employees = Employee.values();
+        fleet = new Fleet(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            String plate = String.format("%05d%c", i % 100000, "SDX".charAt(i % 3));
+            fleet.add(Vehicle.fromPlateAndBasics(plate, Date.of(1, 1, 2020), Make.FORD, 0,
+                    campuses[r.nextInt(campuses.length)]));
+        }
+        Date first = Date.of(1, 1, 2025);
+        // the year and the query window lie inside the horizon of per-day bits
+        reservations = new Reservation(vehicles * bookingsPerVehicle, first);
+        for (Vehicle v : fleet) {
+            for (int k = 0; k < bookingsPerVehicle; k++) {
+                Date b = first.plusDays(r.nextInt(365));
+                reservations.add(new Booking(b, b.plusDays(r.nextInt(7)),
+                        employees[r.nextInt(employees.length)], v, Campus.BUSCH));
+            }
+        }
+        begin = Date.of(6, 1, 2025);
+        end = begin.plusDays(6);
+    }
+
+    /**
+     * Looks up the fleet's vehicles at the campus in the joined booked bits of the week.
+     * @return the free vehicles
+     */
+    @Benchmark
+    public List<Vehicle> findAvailable() {
+        return reservations.findAvailable(fleet, Campus.BUSCH, VehicleType.SEDAN, begin, end);
+    }
+
+    /**
+     * Probes each vehicle's interval tree.
+     * @return the free vehicles
+     */
+    @Benchmark
+    public List<Vehicle> checkEach() {
+        List<Vehicle> free = new List<>();
+        for (Vehicle v : fleet.atCampus(Campus.BUSCH, VehicleType.SEDAN)) {
+            if (reservations.isVehicleAvailable(v, begin, end)) free.add(v);
+        }
+        return free;
+    }
+}
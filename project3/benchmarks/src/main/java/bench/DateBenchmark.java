@@ -0,0 +1,87 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Date;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare and parse throughput of util.Date.
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateBenchmark {
+
+    /** Number of distinct inputs cycled through; a power of two. */
+    private static final int INPUTS = 1024;
+
+    /** Random dates to compare. */
+    private Date[] dates;
+
+    /** The same dates as m/d/y text. */
+    private String[] texts;
+
+    /** Position in the input arrays. */
+    private int next;
+
+    /**
+     * Generates the inputs.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random r = new Random(7);
+        dates = new Date[INPUTS];
+        texts = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            dates[i] = new Date(1 + r.nextInt(12), 1 + r.nextInt(28), 1990 + r.nextInt(50));
+            texts[i] = dates[i].toString();
+        }
+    }
+
+    /**
+     * Compares two neighbouring dates.
+     * @return the comparison result
+     */
+    @Benchmark
+    public int compareTo() {
+        int i = next++ & (INPUTS - 1);
+        return dates[i].compareTo(dates[(i + 1) & (INPUTS - 1)]);
+    }
+
+    /**
+     * Parses m/d/y text in place with Date.parse.
+     * @return the packed date
+     */
+    @Benchmark
+    public int parse() {
+        return Date.parse(texts[next++ & (INPUTS - 1)]);
+    }
+
+    /**
+     * Baseline: parses m/d/y text with split and parseInt, the way the
+     * ingest paths did before Date.parse.
+     * @return the parsed date
+     */
+    @Benchmark
+    public Date parseSplit() {
+        String[] md = texts[next++ & (INPUTS - 1)].split("/");
+        Date d = new Date(Integer.parseInt(md[0]), Integer.parseInt(md[1]), Integer.parseInt(md[2]));
+        return d.isValid() ? d : null;
+    }
+}
@@ -0,0 +1,111 @@
+package bench;
+
+import org.example.project3_v3.Booking;
+import org.example.project3_v3.BookingError;
+import org.example.project3_v3.Campus;
+import org.example.project3_v3.Employee;
+import org.example.project3_v3.Make;
+import org.example.project3_v3.Reservation;
+import org.example.project3_v3.ReservationEngine;
+import org.example.project3_v3.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Date;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput from several threads, each booking and then
+ * cancelling a random vehicle and employee: through ReservationEngine,
+ * and through one Reservation behind a single lock. Change the thread
+ * count with -t.
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    /** Number of vehicles booked. */
+    private static final int VEHICLES = 10000;
+
+    /** The vehicles. */
+    private Vehicle[] vehicles;
+
+    /** The striped engine. */
+    private ReservationEngine engine;
+
+    /** The baseline, guarded by its own monitor. */
+    private Reservation single;
+
+    /**
+     * Builds the vehicles and both stores.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = new Vehicle[VEHICLES];
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicles[i] = Vehicle.fromPlateAndBasics(String.format("%05d%c", i, "SDX".charAt(i % 3)),
+                    Date.of(1, 1, 2020), Make.FORD, 0, Campus.BUSCH);
+        }
+        Date anchor = Date.of(7, 1, 2025);
+        engine = new ReservationEngine(anchor);
+        single = new Reservation(0, anchor);
+    }
+
+    /**
+     * Picks a random booking of up to a week in 2025.
+     * @return the booking
+     */
+    private Booking randomBooking() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        Employee[] employees = Employee.values();
+        Date begin = Date.ofEpochDay(Date.of(1, 1, 2025).epochDay() + r.nextInt(365));
+        return new Booking(begin, begin.plusDays(r.nextInt(7)), employees[r.nextInt(employees.length)],
+                vehicles[r.nextInt(VEHICLES)], Campus.COOK);
+    }
+
+    /**
+     * Books and cancels through the engine.
+     * @return whether the booking was made
+     */
+    @Benchmark
+    public boolean engine() {
+        Booking b = randomBooking();
+        BookingError error = engine.book(b);
+        if (error == null) engine.cancel(b.getVehicle().getPlate(), b.getBegin(), b.getEnd());
+        return error == null;
+    }
+
+    /**
+     * Books and cancels through one Reservation under one lock.
+     * @return whether the booking was made
+     */
+    @Benchmark
+    public boolean singleLock() {
+        Booking b = randomBooking();
+        synchronized (single) {
+            BookingError error = single.check(b.getEmployee(), b.getVehicle(), b.getBegin(), b.getEnd());
+            if (error == null) {
+                single.add(b);
+                single.remove(b);
+            }
+            return error == null;
+        }
+    }
+}
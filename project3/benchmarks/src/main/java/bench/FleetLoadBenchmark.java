@@ -0,0 +1,108 @@
+package bench;
+
+import org.example.project3_v3.Fleet;
+import org.example.project3_v3.LoadReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load a generated fleet file with Fleet.load(Path),
+ * Fleet.loadParallel(Path) and the Scanner-based Fleet.load(Scanner).
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FleetLoadBenchmark {
+
+    /** Number of lines in the file; plates repeat after 300000 lines. */
+    @Param({"100000", "1000000"})
+    public int lines;
+
+    /** The generated fleet file. */
+    private Path file;
+
+    /**
+     * Writes the fleet file.
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] makes = {"Ford", "Chevy", "Toyota", "Honda"};
+        String[] campuses = {"Busch", "Livingston", "Cook", "Newark", "Camden"};
+        Random r = new Random(11);
+        file = Files.createTempFile("fleet", ".txt");
+        try (BufferedWriter w = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < lines; i++) {
+                w.write(String.format("%05d%c %d/%d/%d %s %d %s%n",
+                        i % 100000, "SDX".charAt(i / 100000 % 3),
+                        1 + r.nextInt(12), 1 + r.nextInt(28), 2010 + r.nextInt(15),
+                        makes[r.nextInt(makes.length)], r.nextInt(100000),
+                        campuses[r.nextInt(campuses.length)]));
+            }
+        }
+    }
+
+    /**
+     * Deletes the fleet file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Loads through a FileChannel, tokenizing bytes in place.
+     * @return the load report
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public LoadReport loadPath() throws IOException {
+        return new Fleet().load(file);
+    }
+
+    /**
+     * Loads in parallel chunks on the common fork-join pool.
+     * @return the load report
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public LoadReport loadParallel() throws IOException {
+        return new Fleet().loadParallel(file);
+    }
+
+    /**
+     * Loads through Scanner.nextLine.
+     * @return the number of vehicles loaded
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public int loadScanner() throws IOException {
+        try (Scanner sc = new Scanner(file)) {
+            return new Fleet().load(sc);
+        }
+    }
+}
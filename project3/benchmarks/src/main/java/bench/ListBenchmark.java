@@ -0,0 +1,112 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.List;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append, lookup and removal throughput of util.List, with and without the
+ * hash index.
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBenchmark {
+
+    /** Number of elements in the list. */
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    /** Whether the list keeps its hash index. */
+    @Param({"false", "true"})
+    public boolean hashed;
+
+    /** Boxed values appended by the append benchmarks. */
+    private Integer[] values;
+
+    /** Prebuilt list used by the lookup benchmarks. */
+    private List<Integer> list;
+
+    /** Value looked up; sits in the middle of the list. */
+    private Integer probe;
+
+    /**
+     * Builds the values and the lookup list.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) values[i] = i;
+        list = build();
+        probe = values[size / 2];
+    }
+
+    /**
+     * Builds a list holding every value.
+     * @return the filled list
+     */
+    private List<Integer> build() {
+        List<Integer> l = new List<>();
+        if (hashed) l.enableHashIndex();
+        for (Integer v : values) l.add(v);
+        return l;
+    }
+
+    /**
+     * Appends size elements to an empty list.
+     * @return the filled list
+     */
+    @Benchmark
+    public List<Integer> append() {
+        return build();
+    }
+
+    /**
+     * Appends size elements to a list presized to hold them.
+     * @return the filled list
+     */
+    @Benchmark
+    public List<Integer> appendPresized() {
+        List<Integer> l = new List<>(size);
+        if (hashed) l.enableHashIndex();
+        for (Integer v : values) l.add(v);
+        return l;
+    }
+
+    /**
+     * Looks up an element in the middle of the list.
+     * @return the index found
+     */
+    @Benchmark
+    public int indexOf() {
+        return list.indexOf(probe);
+    }
+
+    /**
+     * Removes an element from the middle of the list and puts it back, so
+     * the list keeps its size between calls.
+     * @return the list size afterwards
+     */
+    @Benchmark
+    public int removeAndAdd() {
+        list.remove(probe);
+        list.add(probe);
+        return list.size();
+    }
+}
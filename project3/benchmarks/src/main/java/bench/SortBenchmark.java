@@ -0,0 +1,154 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.Date;
+import util.List;
+import util.Sort;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort throughput of the util.Sort routines on random dates, from 1k to 10M
+ * elements. Every invocation sorts a fresh unsorted copy.
+ * @author joshuaH, alexG
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    /** Number of elements sorted. */
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /** Unsorted source data, copied before each invocation. */
+    private Date[] source;
+
+    /** The list sorted by the current invocation. */
+    private List<Date> list;
+
+    /**
+     * Generates random dates between 1990 and 2039.
+     */
+    @Setup(Level.Trial)
+    public void generate() {
+        Random r = new Random(42);
+        source = new Date[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = new Date(1 + r.nextInt(12), 1 + r.nextInt(28), 1990 + r.nextInt(50));
+        }
+    }
+
+    /**
+     * Refills the list with the unsorted data.
+     */
+    @Setup(Level.Invocation)
+    public void refill() {
+        list = new List<>(size);
+        for (Date d : source) list.add(d);
+    }
+
+    /**
+     * Stable merge sort on the calling thread.
+     * @return the sorted list
+     */
+    @Benchmark
+    public List<Date> mergeSort() {
+        Sort.mergeSort(list, Date::compareTo);
+        return list;
+    }
+
+    /**
+     * Fork-join merge sort.
+     * @return the sorted list
+     */
+    @Benchmark
+    public List<Date> parallelSort() {
+        Sort.parallelSort(list, Date::compareTo);
+        return list;
+    }
+
+    /**
+     * LSD radix sort on the packed date.
+     * @return the sorted list
+     */
+    @Benchmark
+    public List<Date> radixSort() {
+        Sort.radixSort(list, Date::packed);
+        return list;
+    }
+
+    /**
+     * Keyed sort on the packed date.
+     * @return the sorted list
+     */
+    @Benchmark
+    public List<Date> keyedSort() {
+        Sort.keyedSort(list, Date::packed);
+        return list;
+    }
+
+    /**
+     * Quadratic baseline, measured on small sizes only.
+     */
+    @State(Scope.Thread)
+    public static class Selection {
+
+        /** Number of elements sorted; larger sizes take minutes per call. */
+        @Param({"1000", "10000"})
+        public int size;
+
+        /** Unsorted source data, copied before each invocation. */
+        private Date[] source;
+
+        /** The list sorted by the current invocation. */
+        private List<Date> list;
+
+        /**
+         * Generates random dates between 1990 and 2039.
+         */
+        @Setup(Level.Trial)
+        public void generate() {
+            Random r = new Random(42);
+            source = new Date[size];
+            for (int i = 0; i < size; i++) {
+                source[i] = new Date(1 + r.nextInt(12), 1 + r.nextInt(28), 1990 + r.nextInt(50));
+            }
+        }
+
+        /**
+         * Refills the list with the unsorted data.
+         */
+        @Setup(Level.Invocation)
+        public void refill() {
+            list = new List<>(size);
+            for (Date d : source) list.add(d);
+        }
+    }
+
+    /**
+     * Selection sort baseline.
+     * @param s the small-size state
+     * @return the sorted list
+     */
+    @Benchmark
+    public List<Date> selectionSort(Selection s) {
+        Sort.selectionSort(s.list, Date::compareTo);
+        return s.list;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.project3_v3;
+
+import util.IntList;
+
+/**
+ * Outcome of booking a batch: whether the batch was committed, and the
+ * position and error of every booking that was refused. A batch is
+ * committed only when no booking is refused.
+ * Positions start at 0, in the order the bookings were given.
+ * @author joshuaH, alexG
+ */
+
+public class BatchReport {
+
+    /** Number of bookings in the batch. */
+    private final int size;
+
+    /** Whether the bookings were added to the reservation. */
+    private boolean committed;
+
+    /** Positions of the refused bookings, in batch order. */
+    private final IntList rejectedPositions = new IntList();
+
+    /** Ordinal of the BookingError of each refused booking. */
+    private final IntList rejectedErrors = new IntList();
+
+    /** Number of refused bookings per BookingError, indexed by ordinal. */
+    private final int[] counts = new int[BookingError.values().length];
+
+    /**
+     * Creates a report for a batch.
+     * @param size the number of bookings in the batch
+     */
+    BatchReport(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Records that a booking was refused.
+     * @param position the booking's position in the batch
+     * @param error why it was refused
+     */
+    void reject(int position, BookingError error) {
+        rejectedPositions.add(position);
+        rejectedErrors.add(error.ordinal());
+        counts[error.ordinal()]++;
+    }
+
+    /**
+     * Records that every booking was added.
+     */
+    void committed() {
+        committed = true;
+    }
+
+    /** @return the number of bookings in the batch */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return true if the bookings were added, false if none were */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /** @return the number of bookings refused */
+    public int getRejected() {
+        return rejectedPositions.size();
+    }
+
+    /**
+     * Returns how many bookings were refused for one reason.
+     * @param error the reason
+     * @return the number of bookings
+     */
+    public int count(BookingError error) {
+        return counts[error.ordinal()];
+    }
+
+    /**
+     * Returns the batch position of a refused booking.
+     * @param i the position among the refused bookings, from 0
+     * @return the position in the batch
+     */
+    public int rejectedPosition(int i) {
+        return rejectedPositions.get(i);
+    }
+
+    /**
+     * Returns why a refused booking was refused.
+     * @param i the position among the refused bookings, from 0
+     * @return the error
+     */
+    public BookingError rejectedError(int i) {
+        return BookingError.values()[rejectedErrors.get(i)];
+    }
+
+    /**
+     * Summarizes the batch, with one line per kind of error giving the
+     * number of bookings refused for it.
+     * @return the summary text
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(size).append(" bookings, ");
+        if (committed) sb.append("all added");
+        else sb.append("none added, ").append(getRejected()).append(" refused");
+        for (BookingError e : BookingError.values()) {
+            if (counts[e.ordinal()] == 0) continue;
+            sb.append("\n  ").append(counts[e.ordinal()]).append(" x ").append(e.message());
+        }
+        return sb.toString();
+    }
+}
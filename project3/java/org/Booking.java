@@ -97,6 +97,15 @@ public class Booking {
                 && end.equals(b.end);
     }
 
+    /**
+     * Returns a hash code built from the same fields as equals.
+     * @return the hash code of this booking
+     */
+    @Override
+    public int hashCode() {
+        return (vehicle.hashCode() * 31 + begin.hashCode()) * 31 + end.hashCode();
+    }
+
     /**
      * Returns the string representation of booking
      * @return the booking in string form
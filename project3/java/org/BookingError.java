@@ -0,0 +1,39 @@
+package org.example.project3_v3;
+
+/**
+ * Reasons a booking is refused
+ * @author joshuaH, alexG
+ */
+
+public enum BookingError {
+
+    /** The begin date is after the end date. */
+    BAD_DATES("Start date must be before or same as end date."),
+    /** The vehicle already has a booking overlapping the dates. */
+    VEHICLE_UNAVAILABLE("Vehicle is not available for the selected dates."),
+    /** Another booking in the same batch takes the vehicle on overlapping dates. */
+    VEHICLE_BATCH_CONFLICT("Vehicle is requested by another booking in the batch for overlapping dates."),
+    /** The employee already has a booking overlapping the dates. */
+    EMPLOYEE_CONFLICT("Employee already has a booking during this time."),
+    /** Another booking in the same batch is for the employee on overlapping dates. */
+    EMPLOYEE_BATCH_CONFLICT("Employee has another booking in the batch during this time.");
+
+    /** Readable description of the error. */
+    private final String message;
+
+    /**
+     * Creates an error with its description.
+     * @param message the readable description
+     */
+    BookingError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the readable description of the error.
+     * @return the description
+     */
+    public String message() {
+        return message;
+    }
+}
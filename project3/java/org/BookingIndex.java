@@ -0,0 +1,334 @@
+package org.example.project3_v3;
+
+import util.Date;
+import util.IntervalTree;
+import util.LongMap;
+import util.PriorityQueue;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Indexes of a set of bookings by vehicle: an interval tree per vehicle,
+ * the vehicles booked on each day of a horizon, a heap on end date and
+ * composite plate and date keys. Reservation keeps one for all of its
+ * bookings, and ReservationEngine keeps one per stripe of vehicles.
+ * Bookings of vehicles without a valid plate code are only kept in the
+ * end-date heap. Not thread-safe.
+ * @author joshuaH, alexG
+ */
+
+class BookingIndex {
+
+    /** Added to an epoch day so that 1/1/0000 is day 0. */
+    private static final int DAY_OFFSET = 719528;
+
+    /** Bits of a day in a composite key; covers years 0 through 9999. */
+    private static final int DAY_BITS = 22;
+
+    /** Days before the anchor date that the per-day bits cover. */
+    private static final int HORIZON_PAST = 366;
+
+    /** Days after the anchor date that the per-day bits cover. */
+    private static final int HORIZON_AHEAD = 2 * 366;
+
+    /** Each vehicle's bookings as [begin, end] epoch-day intervals, keyed by plate code. */
+    private final LongMap<IntervalTree<Booking>> byVehicle = new LongMap<>();
+
+    /** Bookings keyed by plate code and end day. */
+    private final LongMap<Booking> byPlateEnd = new LongMap<>();
+
+    /** Bookings keyed by plate code, begin day and end day. */
+    private final LongMap<Booking> byPlateDates = new LongMap<>();
+
+    /** First epoch day with per-day bits; after horizonEnd if there are none. */
+    private final int horizonStart;
+
+    /** Last epoch day with per-day bits. */
+    private final int horizonEnd;
+
+    /**
+     * Slot of each vehicle in byVehicle, keyed by plate code. Slots are
+     * dense from 0, and the slot of a vehicle whose last booking goes is
+     * given to the next vehicle booked, so the per-day bits stay as small as
+     * the number of vehicles booked.
+     */
+    private final LongMap<Integer> vehicleSlots = new LongMap<>();
+
+    /** Slots given to a vehicle. */
+    private final BitSet usedSlots = new BitSet();
+
+    /**
+     * Slots of the vehicles booked on each epoch day from horizonStart to
+     * horizonEnd. Days with no bookings have no entry, and days outside the
+     * horizon are answered from byVehicle, so a booking years long costs no
+     * more than one of the horizon's length.
+     */
+    private final LongMap<BitSet> bookedOn = new LongMap<>();
+
+    /** Every booking in a min-heap on end date. */
+    private final PriorityQueue<Booking> byEnd = new PriorityQueue<>((a, b) -> a.getEnd().compareTo(b.getEnd()));
+
+    /**
+     * Creates an empty index without per-day bits, so every availability
+     * check uses the vehicles' interval trees.
+     */
+    BookingIndex() {
+        horizonStart = 1;
+        horizonEnd = 0;
+    }
+
+    /**
+     * Creates an empty index whose per-day bits cover the days from a year
+     * before the anchor to two years after it.
+     * @param anchor the date the horizon is placed around
+     */
+    BookingIndex(Date anchor) {
+        horizonStart = anchor.epochDay() - HORIZON_PAST;
+        horizonEnd = anchor.epochDay() + HORIZON_AHEAD;
+    }
+
+    /**
+     * Turns a date into the day field of a composite key.
+     * @param d the date
+     * @return the day counted from 1/1/0000, or -1 if the date is not a valid
+     *         date in years 0 through 9999
+     */
+    private static long dayKey(Date d) {
+        if (!d.isValid()) return -1;
+        int day = d.epochDay() + DAY_OFFSET;
+        return day >= 0 && day < (1 << DAY_BITS) ? day : -1;
+    }
+
+    /**
+     * Builds the (plate, end) key.
+     * @param code the plate code
+     * @param end the end date
+     * @return the key, or -1 if the plate or date cannot be keyed
+     */
+    private static long plateEndKey(int code, Date end) {
+        long e = dayKey(end);
+        if (code < 0 || e < 0) return -1;
+        return ((long) code << DAY_BITS) | e;
+    }
+
+    /**
+     * Builds the (plate, begin, end) key. A plate code uses 19 bits, so the
+     * key fits in 63 bits and is never negative.
+     * @param code the plate code
+     * @param begin the begin date
+     * @param end the end date
+     * @return the key, or -1 if the plate or a date cannot be keyed
+     */
+    private static long plateDatesKey(int code, Date begin, Date end) {
+        long b = dayKey(begin);
+        long e = dayKey(end);
+        if (code < 0 || b < 0 || e < 0) return -1;
+        return ((long) code << (2 * DAY_BITS)) | (b << DAY_BITS) | e;
+    }
+
+    /**
+     * Finds a booking of one vehicle with the given dates.
+     * @param tree the vehicle's bookings, or null
+     * @param begin the begin date to match, or null to match any
+     * @param end the end date to match
+     * @return a matching booking, or null
+     */
+    private static Booking findInTree(IntervalTree<Booking> tree, Date begin, Date end) {
+        if (tree == null) return null;
+        Booking[] found = new Booking[1];
+        int day = end.epochDay();
+        tree.forEachOverlap(day, day, x -> {
+            if (found[0] == null && x.getEnd().equals(end) && (begin == null || x.getBegin().equals(begin))) {
+                found[0] = x;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Adds a booking to every index.
+     * @param b the booking
+     */
+    void add(Booking b) {
+        byEnd.add(b);
+        int code = b.getVehicle().plateCode();
+        if (code < 0) return;
+        long key = plateEndKey(code, b.getEnd());
+        if (key >= 0) byPlateEnd.putIfAbsent(key, b);
+        key = plateDatesKey(code, b.getBegin(), b.getEnd());
+        if (key >= 0) byPlateDates.putIfAbsent(key, b);
+        int begin = b.getBegin().epochDay();
+        int end = b.getEnd().epochDay();
+        IntervalTree<Booking> tree = byVehicle.get(code);
+        if (tree == null) {
+            tree = new IntervalTree<>();
+            byVehicle.put(code, tree);
+            int slot = usedSlots.nextClearBit(0);
+            usedSlots.set(slot);
+            vehicleSlots.put(code, slot);
+        }
+        tree.insert(begin, end, b);
+        int slot = vehicleSlots.get(code);
+        for (int day = Math.max(begin, horizonStart), last = Math.min(end, horizonEnd); day <= last; day++) {
+            BitSet booked = bookedOn.get(day);
+            if (booked == null) {
+                booked = new BitSet();
+                bookedOn.put(day, booked);
+            }
+            booked.set(slot);
+        }
+    }
+
+    /**
+     * Takes a booking out of every index. If a composite key pointed at it,
+     * the key is moved to another booking of the same vehicle with the
+     * same dates, if there is one.
+     * @param b the booking, the same object that was added
+     */
+    void remove(Booking b) {
+        byEnd.remove(b);
+        int code = b.getVehicle().plateCode();
+        IntervalTree<Booking> tree = code < 0 ? null : byVehicle.get(code);
+        if (tree == null) return;
+        int begin = b.getBegin().epochDay();
+        tree.remove(begin, b);
+        int slot = vehicleSlots.get(code);
+        // a day stays booked while another booking of the vehicle covers it
+        for (int day = Math.max(begin, horizonStart), last = Math.min(b.getEnd().epochDay(), horizonEnd);
+                day <= last; day++) {
+            if (tree.overlaps(day, day)) continue;
+            BitSet booked = bookedOn.get(day);
+            if (booked == null) continue;
+            booked.clear(slot);
+            if (booked.isEmpty()) bookedOn.remove(day);
+        }
+        if (tree.isEmpty()) {
+            byVehicle.remove(code);
+            vehicleSlots.remove(code);
+            usedSlots.clear(slot);
+        }
+        long key = plateEndKey(code, b.getEnd());
+        if (key >= 0 && byPlateEnd.get(key) == b) {
+            Booking other = findInTree(tree, null, b.getEnd());
+            if (other == null) byPlateEnd.remove(key);
+            else byPlateEnd.put(key, other);
+        }
+        key = plateDatesKey(code, b.getBegin(), b.getEnd());
+        if (key >= 0 && byPlateDates.get(key) == b) {
+            Booking other = findInTree(tree, b.getBegin(), b.getEnd());
+            if (other == null) byPlateDates.remove(key);
+            else byPlateDates.put(key, other);
+        }
+    }
+
+    /**
+     * Removes every booking.
+     */
+    void clear() {
+        byVehicle.clear();
+        byEnd.clear();
+        byPlateEnd.clear();
+        byPlateDates.clear();
+        vehicleSlots.clear();
+        usedSlots.clear();
+        bookedOn.clear();
+    }
+
+    /**
+     * Checks whether a vehicle has any booking.
+     * @param code the vehicle's plate code
+     * @return true if it has one
+     */
+    boolean hasVehicle(int code) {
+        return code >= 0 && byVehicle.containsKey(code);
+    }
+
+    /**
+     * Finds a booking of a vehicle with the given dates.
+     * @param code the vehicle's plate code
+     * @param begin the begin date to match, or null to match any
+     * @param end the end date to match
+     * @return a matching booking, or null
+     */
+    Booking find(int code, Date begin, Date end) {
+        if (code < 0) return null;
+        long key = begin == null ? plateEndKey(code, end) : plateDatesKey(code, begin, end);
+        if (key >= 0) return begin == null ? byPlateEnd.get(key) : byPlateDates.get(key);
+        return findInTree(byVehicle.get(code), begin, end);
+    }
+
+    /**
+     * Joins the per-day bits of a window, for checking many vehicles with
+     * isFree(int, BitSet).
+     * @param first the first epoch day
+     * @param last the last epoch day
+     * @return the slots of the vehicles booked on any day of the window, or
+     *         null if the window is not inside the horizon
+     */
+    BitSet bookedDuring(int first, int last) {
+        if (first < horizonStart || last > horizonEnd) return null;
+        BitSet booked = new BitSet();
+        for (int day = first; day <= last; day++) {
+            BitSet on = bookedOn.get(day);
+            if (on != null) booked.or(on);
+        }
+        return booked;
+    }
+
+    /**
+     * Checks whether a vehicle has no booking overlapping the given days.
+     * @param code the vehicle's plate code, not negative
+     * @param first the first epoch day
+     * @param last the last epoch day
+     * @return true if the vehicle is free
+     */
+    boolean isFree(int code, int first, int last) {
+        IntervalTree<Booking> tree = byVehicle.get(code);
+        return tree == null || !tree.overlaps(first, last);
+    }
+
+    /**
+     * Checks whether a vehicle is free in a window already joined by bookedDuring.
+     * @param code the vehicle's plate code, not negative
+     * @param booked the result of bookedDuring
+     * @return true if the vehicle is free
+     */
+    boolean isFree(int code, BitSet booked) {
+        Integer slot = vehicleSlots.get(code);
+        return slot == null || !booked.get(slot);
+    }
+
+    /**
+     * Returns the booking with the earliest ending date.
+     * @return the booking, or null if there are none
+     */
+    Booking earliestEnd() {
+        return byEnd.peek();
+    }
+
+    /**
+     * Checks whether this booking object is indexed.
+     * @param b the booking, compared by identity
+     * @return true if it was added and not removed
+     */
+    boolean contains(Booking b) {
+        return byEnd.contains(b);
+    }
+
+    /**
+     * Returns the number of bookings.
+     * @return the number of bookings
+     */
+    int size() {
+        return byEnd.size();
+    }
+
+    /**
+     * Passes every booking to an action, in no particular order.
+     * @param action the action
+     */
+    void forEach(Consumer<? super Booking> action) {
+        byEnd.forEach(action);
+    }
+}
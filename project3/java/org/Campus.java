@@ -1,5 +1,8 @@
 package org.example.project3_v3;
 
+import util.ByteChars;
+import util.Sort;
+
 /**
  * Camous enum class that holds the campus used in booking
  * @author joshuaH, alexG
@@ -27,6 +30,12 @@ public enum Campus {
     /** City where the campus is located. */
     private final String city;
 
+    /** Alphabetical rank of each campus's city, indexed by ordinal. */
+    private static final int[] CITY_RANK = Sort.ranks(values(), c -> c.city);
+
+    /** All campuses, kept so lookups do not clone values() each time. */
+    private static final Campus[] VALUES = values();
+
     /**
      * Constructs a campus constant with its display name and city.
      * @param name the campus name
@@ -53,6 +62,16 @@ public enum Campus {
         return city;
     }
 
+    /**
+     * Returns the position of the campus's city in alphabetical order, so
+     * sort keys can order by city without comparing strings.
+     * Campuses in the same city share a rank.
+     * @return the city rank, starting at 0
+     */
+    public int cityRank() {
+        return CITY_RANK[ordinal()];
+    }
+
     /**
      * Converts a textual campus name into its enum constant
 
@@ -74,6 +93,21 @@ public enum Campus {
         }
     }
 
+    /**
+     * Looks up a campus by name in a range of characters, ignoring case,
+     * without creating a string.
+     * @param s the characters holding the name
+     * @param from the first index of the name
+     * @param to one past the last index of the name
+     * @return the campus, or null if the name is not a campus
+     */
+    public static Campus fromText(CharSequence s, int from, int to) {
+        for (Campus c : VALUES) {
+            if (ByteChars.regionEqualsIgnoreCase(s, from, to, c.name())) return c;
+        }
+        return null;
+    }
+
     /**
      * Returns the campus display name for string output.
      *
@@ -9,36 +9,22 @@ import javafx.stage.FileChooser;
 import util.Date;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 
 /**
  * Controller class for the JavaFX GUI (view.fxml).
  * Handles all user interactions and updates the view.
- * Interface with the Model classes (Fleet,TripList,Reservation).
+ * Interface with the Model classes through ReservationEngine.
  * @author alexG, joshuaH
  */
 public class Controller {
 
-    //  Constants
     /**
-     * The number of parts expected in a date string (m/d/y)
+     * Holds all vehicles, active bookings and completed trips; availability
+     * searches use per-day bits placed around the day the desk opens.
      */
-    private static final int EXPECTED_DATE_PARTS = 3;
-
-    /**
-     *  Holds all vehicle objects.
-     */
-    private Fleet fleet = new Fleet();
-    /**
-     * Holds all active booking objects.
-     * */
-    private Reservation reservations = new Reservation();
-
-    /**
-     * Holds all completed trip objects.
-     */
-    private TripList trips = new TripList();
+    private final ReservationEngine engine = new ReservationEngine(Date.today());
 
     // --- FXML Components: Book/Return Tab ---
     @FXML
@@ -119,7 +105,7 @@ public class Controller {
         if (plate == null || plate.trim().isEmpty()) {
             throw new IllegalArgumentException("License plate cannot be empty.");
         }
-        Vehicle v = fleet.getByPlate(plate.trim());
+        Vehicle v = engine.getVehicle(plate.trim());
         if (v == null) {
             throw new IllegalArgumentException("Vehicle not found in fleet: " + plate);
         }
@@ -134,25 +120,14 @@ public class Controller {
      * @throws IllegalArgumentException if the date format is invalid or not a real date.
      */
     private Date parseDate(String dateStr) throws IllegalArgumentException {
-        try {
-            String[] parts = dateStr.split("/");
-            if (parts.length != EXPECTED_DATE_PARTS) {
-                throw new IllegalArgumentException("Invalid date format. Use m/d/y");
-            }
-
-
-            int month = Integer.parseInt(parts[0]);
-            int day = Integer.parseInt(parts[1]);
-            int year = Integer.parseInt(parts[2]);
-
-            Date date = new Date(month, day, year);
-            if (!date.isValid()) {
-                throw new IllegalArgumentException("Invalid date: " + dateStr);
-            }
-            return date;
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Date must contain numeric values");
+        int packed = dateStr == null ? Date.PARSE_BAD_FORMAT : Date.parse(dateStr.trim());
+        if (packed == Date.PARSE_BAD_FORMAT) {
+            throw new IllegalArgumentException("Invalid date format. Use m/d/y");
         }
+        if (packed == Date.PARSE_NOT_A_DATE) {
+            throw new IllegalArgumentException("Invalid date: " + dateStr);
+        }
+        return Date.fromPacked(packed);
     }
 
     /**
@@ -189,32 +164,6 @@ public class Controller {
         }
     }
 
-    /**
-     * Runs all business logic checks for a new booking.
-     *
-     * @param emp    The Employee making the booking.
-     * @param vehicle The Vehicle to be booked.
-     * @param start  The desired start date.
-     * @param end    The desired end date.
-     * @throws IllegalArgumentException if any business rule is violated.
-     */
-    private void validateBooking(Employee emp, Vehicle vehicle, Date start, Date end) throws IllegalArgumentException {
-        // Check 1: Date logic
-        if (start.compareTo(end) > 0) {
-            throw new IllegalArgumentException("Start date must be before or same as end date.");
-        }
-
-        // Check 2: Vehicle availability
-        if (!reservations.isVehicleAvailable(vehicle, start, end)) {
-            throw new IllegalArgumentException("Vehicle is not available for the selected dates.");
-        }
-
-        // Check 3: Employee booking conflict
-        if (reservations.hasEmployeeWindowConflict(emp, start, end)) {
-            throw new IllegalArgumentException("Employee already has a booking during this time.");
-        }
-    }
-
     /**
      * Clears the booking form fields after a successful booking
      */
@@ -265,12 +214,15 @@ public class Controller {
         File file = fileChooser.showOpenDialog(null);
 
         if (file != null) {
-            try (Scanner scanner = new Scanner(file)) {
-                int count = fleet.load(scanner);
-                outputGuest(count + " vehicles loaded successfully from " + file.getName() + "\n");
-            } catch (FileNotFoundException e) {
+            try {
+                LoadReport report = engine.loadFleet(file.toPath());
+                outputGuest(report.getLoaded() + " vehicles loaded successfully from " + file.getName() + "\n");
+                if (report.getRejected() > 0) {
+                    outputGuest(report + "\n");
+                }
+            } catch (NoSuchFileException e) {
                 outputGuest("Error: File not found. " + e.getMessage() + "\n");
-            } catch (Exception e) {
+            } catch (IOException | RuntimeException e) {
                 outputGuest("Error loading fleet file: " + e.getMessage() + "\n");
             }
         } else {
@@ -291,10 +243,12 @@ public class Controller {
             Date endDate = parseDate(bookEndDate.getText());
             Campus dropoff = parseCampus(bookDropoff.getText());
 
-            validateBooking(emp, vehicle, startDate, endDate);
-
+            // Date logic, then vehicle availability, then employee booking conflict
             Booking newBooking = new Booking(startDate, endDate, emp, vehicle, dropoff);
-            reservations.add(newBooking);
+            BookingError error = engine.book(newBooking);
+            if (error != null) {
+                throw new IllegalArgumentException(error.message());
+            }
 
             outputGuest("Booking successful!\n" + newBooking.toString() + "\n");
             clearBookingFields();
@@ -315,30 +269,7 @@ public class Controller {
             Date endDate = parseDate(returnEndDate.getText());
             int endMileage = parseMileage(returnMileage.getText());
 
-            Vehicle vehicle = fleet.getByPlate(plate);
-            if (vehicle == null) {
-                throw new IllegalArgumentException("Vehicle not found: " + plate);
-            }
-
-            Booking booking = reservations.findByPlateEnd(plate, endDate);
-            if (booking == null) {
-                throw new IllegalArgumentException("No matching reservation found for " + plate + " ending on " + endDate);
-            }
-
-            if (endMileage < vehicle.getMileage()) {
-                throw new IllegalArgumentException("End mileage (" + endMileage + ") cannot be less than start mileage (" + vehicle.getMileage() + ").");
-            }
-
-            boolean hasSurcharge = vehicle.getCampus() != booking.getDropoff();
-            int startMileage = vehicle.getMileage();
-
-            Trip completedTrip = new Trip(booking, startMileage, endMileage, hasSurcharge);
-            trips.add(completedTrip);
-
-            vehicle.setMileage(endMileage);
-            vehicle.setCampus(booking.getDropoff());
-
-            reservations.remove(booking);
+            Trip completedTrip = engine.returnVehicle(plate, endDate, endMileage);
 
             outputArea.setText("Return successful!\n" + completedTrip.toString() + "\n");
             clearReturnFields();
@@ -350,12 +281,12 @@ public class Controller {
 
     /**
      * Handles the "Show All Fleet Vehicles" button click.
-     * Calls the refactored print method from Fleet.
+     * Calls the fleet report through the engine.
      */
     @FXML
     private void handleShowFleet() {
         try {
-            String fleetReport = fleet.printByLocationMakeDate();
+            String fleetReport = engine.printFleet();
             outputGuest(fleetReport);
         } catch (Exception e) {
             outputGuest("Error generating fleet report: " + e.getMessage() + "\n");
@@ -373,13 +304,13 @@ public class Controller {
         try {
             String report;
             if (radioReservationsByPlate.isSelected()) {
-                report = reservations.printByLocationPlateBegin();
+                report = engine.printByLocationPlateBegin();
             } else if (radioReservationsByDept.isSelected()) {
-                report = reservations.printByDept();
+                report = engine.printByDept();
             } else if (radioTrips.isSelected()) {
-                report = trips.printTrips();
+                report = engine.printTrips();
             } else if (radioCharges.isSelected()) {
-                report = trips.printCharges();
+                report = engine.printCharges();
             } else {
                 report = "Please select a report type.";
             }
@@ -1,5 +1,7 @@
 package org.example.project3_v3;
 
+import util.Sort;
+
 /**
  * emum class of departments in company
  * @author joshuaH, alexG
@@ -21,6 +23,18 @@ public enum Department {
     /** The full name of the department. */
     private final String name;
 
+    /** Alphabetical rank of each department's full name, indexed by ordinal. */
+    private static final int[] NAME_RANK = Sort.ranks(values(), d -> d.name);
+
+    /**
+     * Returns the position of the department's full name in alphabetical
+     * order, so sort keys can order by department without comparing strings.
+     * @return the name rank, starting at 0
+     */
+    public int nameRank() {
+        return NAME_RANK[ordinal()];
+    }
+
     /**
      * creates the department with the name it belongs to.
      * @param name , name of department
@@ -1,5 +1,7 @@
 package org.example.project3_v3;
 
+import util.Sort;
+
 /**
  * enum class of employees, has associated dept too.
  * @author joshuaH, alexg
@@ -26,6 +28,9 @@ public enum Employee {
     /** Department the employee belongs to. */
     private final Department dept;
 
+    /** Alphabetical rank of each employee's name, indexed by ordinal. */
+    private static final int[] NAME_RANK = Sort.ranks(values(), Employee::name);
+
     /**
      * creates an employee with their dept
      * @param dept , the department the employee is in
@@ -43,4 +48,13 @@ public enum Employee {
     public Department getDept() {
         return dept;
     }
+
+    /**
+     * Returns the position of the employee's name in alphabetical order, so
+     * sort keys can order by name without comparing strings.
+     * @return the name rank, starting at 0
+     */
+    public int nameRank() {
+        return NAME_RANK[ordinal()];
+    }
 }
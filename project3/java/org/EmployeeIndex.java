@@ -0,0 +1,64 @@
+package org.example.project3_v3;
+
+import util.IntervalTree;
+
+import java.util.EnumMap;
+
+/**
+ * Each employee's bookings as [begin, end] epoch-day intervals, for the
+ * window conflict check. Every employee has a tree from the start and
+ * keeps it until clear, so without clear the map itself is only read and
+ * the trees of different employees can be guarded by different locks.
+ * Not thread-safe.
+ * @author joshuaH, alexG
+ */
+
+class EmployeeIndex {
+
+    /** Each employee's bookings. */
+    private final EnumMap<Employee, IntervalTree<Booking>> byEmployee = new EnumMap<>(Employee.class);
+
+    /**
+     * Creates an empty index.
+     */
+    EmployeeIndex() {
+        clear();
+    }
+
+    /**
+     * Adds a booking under its employee.
+     * @param b the booking, with an employee
+     */
+    void add(Booking b) {
+        byEmployee.get(b.getEmployee()).insert(b.getBegin().epochDay(), b.getEnd().epochDay(), b);
+    }
+
+    /**
+     * Removes a booking from its employee's tree.
+     * @param b the booking, the same object that was added
+     */
+    void remove(Booking b) {
+        byEmployee.get(b.getEmployee()).remove(b.getBegin().epochDay(), b);
+    }
+
+    /**
+     * Removes every booking by giving each employee a new tree. Not for an
+     * index shared between threads.
+     */
+    void clear() {
+        for (Employee e : Employee.values()) {
+            byEmployee.put(e, new IntervalTree<>());
+        }
+    }
+
+    /**
+     * Checks whether an employee has a booking overlapping the given days.
+     * @param emp the employee
+     * @param first the first epoch day
+     * @param last the last epoch day
+     * @return true if there is a conflict
+     */
+    boolean overlaps(Employee emp, int first, int last) {
+        return byEmployee.get(emp).overlaps(first, last);
+    }
+}
@@ -1,10 +1,27 @@
 package org.example.project3_v3;
 
+import util.ByteChars;
 import util.Date;
+import util.IntList;
+import util.LongMap;
 import util.Sort;
 import util.List;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 
 /**
  * Represents a fleet of vehicles
@@ -14,18 +31,393 @@ import java.util.Scanner;
 
 public class Fleet extends List<Vehicle> {
 
+    /** Initial size of the read buffer used by load(Path), in bytes. */
+    private static final int READ_BUFFER = 1 << 16;
+
+    /** Smallest chunk a parallel load gives to one task, in bytes. */
+    private static final long MIN_CHUNK = 1 << 20;
+
+    /** Largest chunk a parallel load maps at once, in bytes. */
+    private static final long MAX_CHUNK = 1 << 30;
+
+    /** Chunks per worker thread, so uneven chunks still balance. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /** Vehicles keyed by plate code, kept in step with the list. */
+    private final LongMap<Vehicle> byPlate = new LongMap<>();
+
+    /** Vehicles by current campus, then by type; buckets are created on first use. */
+    private final EnumMap<Campus, EnumMap<VehicleType, Set<Vehicle>>> byCampus = new EnumMap<>(Campus.class);
+
+    /** Vehicles by make. */
+    private final EnumMap<Make, Set<Vehicle>> byMake = new EnumMap<>(Make.class);
+
+    /** Vehicles by type. */
+    private final EnumMap<VehicleType, Set<Vehicle>> byType = new EnumMap<>(VehicleType.class);
+
+    /**
+     * Slot of each plate code in the plate index. Slots are dense from 0,
+     * and the slot of a plate that leaves the fleet is given to the next
+     * new plate, so the bit sets of slotsAt stay as small as the fleet.
+     */
+    private final LongMap<Integer> plateSlots = new LongMap<>();
+
+    /** Slots given to a plate code. */
+    private final BitSet usedSlots = new BitSet();
+
+    /** The vehicle getByPlate returns for each slot in use. */
+    private Vehicle[] inSlot = new Vehicle[16];
+
+    /**
+     * Slots of the vehicles getByPlate returns, by current campus and type.
+     * A plate shared by several vehicles is counted where its first vehicle is.
+     */
+    private final EnumMap<Campus, EnumMap<VehicleType, BitSet>> slotsAt = new EnumMap<>(Campus.class);
+
+    /**
+     * Creates an empty fleet with hashed lookups for contains and remove.
+     */
+    public Fleet() {
+        super();
+        enableHashIndex();
+    }
+
+    /**
+     * Creates an empty fleet sized to hold the given number of vehicles without growing.
+     * @param initialCapacity the expected number of vehicles
+     */
+    public Fleet(int initialCapacity) {
+        super(initialCapacity);
+        enableHashIndex();
+    }
+
     /**
      * Searches the fleet for a vehicle with the given license plate.
      * @param plate the license plate string to search for
      * @return the vehicle object if found, or null not found
      */
     public Vehicle getByPlate(String plate) {
-        for (Vehicle v : this) {
-            if (v.getPlate().equalsIgnoreCase(plate)){
-                return v;
+        return getByPlateCode(Vehicle.encodePlate(plate));
+    }
+
+    /**
+     * Searches the fleet for a vehicle with the given plate code.
+     * @param code the plate packed by Vehicle.encodePlate
+     * @return the vehicle object if found, or null if not found or code is -1
+     */
+    public Vehicle getByPlateCode(int code) {
+        return code < 0 ? null : byPlate.get(code);
+    }
+
+    /**
+     * Adds a vehicle to the plate index unless its plate is already there.
+     * Vehicles whose plate is not valid have no code and are not indexed.
+     * @param v the vehicle to index
+     */
+    private void indexPlate(Vehicle v) {
+        if (v.plateCode() >= 0 && byPlate.putIfAbsent(v.plateCode(), v) == null) {
+            takeSlot(v);
+            markSlot(v, true);
+        }
+    }
+
+    /**
+     * Points the plate index at a vehicle still in the fleet with the given
+     * plate, or drops the entry if there is none.
+     * @param v a vehicle whose plate may have changed membership
+     */
+    private void reindexPlate(Vehicle v) {
+        int code = v.plateCode();
+        if (code < 0) return;
+        Vehicle old = byPlate.get(code);
+        if (old != null) markSlot(old, false);
+        int i = indexOf(v);
+        if (i == -1) {
+            if (old != null) {
+                byPlate.remove(code);
+                int slot = plateSlots.remove(code);
+                usedSlots.clear(slot);
+                inSlot[slot] = null;
             }
+        } else {
+            byPlate.put(code, get(i));
+            takeSlot(get(i));
+            markSlot(get(i), true);
+        }
+    }
+
+    /**
+     * Gives a vehicle's plate code the lowest free slot, unless it has one,
+     * and makes the vehicle the one its slot stands for.
+     * @param v the vehicle getByPlate returns for its plate code
+     */
+    private void takeSlot(Vehicle v) {
+        Integer slot = plateSlots.get(v.plateCode());
+        if (slot == null) {
+            slot = usedSlots.nextClearBit(0);
+            usedSlots.set(slot);
+            plateSlots.put(v.plateCode(), slot);
+            if (slot == inSlot.length) inSlot = Arrays.copyOf(inSlot, 2 * slot);
+        }
+        inSlot[slot] = v;
+    }
+
+    /**
+     * Sets or clears a vehicle's slot in the bits of its campus and type.
+     * @param v a vehicle whose plate code has a slot
+     * @param on true to set the bit, false to clear it
+     */
+    private void markSlot(Vehicle v, boolean on) {
+        if (v.getCampus() == null) return;
+        EnumMap<VehicleType, BitSet> types = slotsAt.get(v.getCampus());
+        if (types == null) {
+            types = new EnumMap<>(VehicleType.class);
+            slotsAt.put(v.getCampus(), types);
+        }
+        BitSet bits = types.get(v.getType());
+        if (bits == null) {
+            bits = new BitSet();
+            types.put(v.getType(), bits);
         }
-        return null;
+        bits.set(plateSlots.get(v.plateCode()), on);
+    }
+
+    /**
+     * Returns the slots of the vehicles of one type at a campus, for
+     * Reservation.findAvailable. Each slot maps back to its vehicle through
+     * inSlot.
+     * @param campus the campus
+     * @param type the vehicle type
+     * @return a new bit set with one bit per slot
+     */
+    BitSet slotsAt(Campus campus, VehicleType type) {
+        EnumMap<VehicleType, BitSet> types = slotsAt.get(campus);
+        BitSet bits = types == null ? null : types.get(type);
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+
+    /**
+     * Returns the vehicle a slot stands for.
+     * @param slot a slot from slotsAt
+     * @return the vehicle getByPlate returns for the slot's plate, or null if
+     *         the slot is free
+     */
+    Vehicle inSlot(int slot) {
+        return slot < inSlot.length ? inSlot[slot] : null;
+    }
+
+    /**
+     * Returns a bucket of a secondary index, creating it if needed. Buckets
+     * are identity sets, so adding and removing a vehicle is constant time
+     * and a second vehicle with the same plate is never taken out by mistake.
+     * @param <K> the enum key type
+     * @param index the index
+     * @param key the bucket key
+     * @return the bucket
+     */
+    private static <K extends Enum<K>> Set<Vehicle> bucket(EnumMap<K, Set<Vehicle>> index, K key) {
+        Set<Vehicle> b = index.get(key);
+        if (b == null) {
+            b = Collections.newSetFromMap(new IdentityHashMap<>());
+            index.put(key, b);
+        }
+        return b;
+    }
+
+    /**
+     * Returns the campus and type bucket of a vehicle's current campus.
+     * @param v the vehicle
+     * @return the bucket, or null if the vehicle has no campus
+     */
+    private Set<Vehicle> campusBucket(Vehicle v) {
+        if (v.getCampus() == null) return null;
+        EnumMap<VehicleType, Set<Vehicle>> types = byCampus.get(v.getCampus());
+        if (types == null) {
+            types = new EnumMap<>(VehicleType.class);
+            byCampus.put(v.getCampus(), types);
+        }
+        return bucket(types, v.getType());
+    }
+
+    /**
+     * Adds a vehicle to the campus, make and type indexes.
+     * @param v the vehicle
+     */
+    private void indexVehicle(Vehicle v) {
+        Set<Vehicle> atCampus = campusBucket(v);
+        if (atCampus != null) atCampus.add(v);
+        if (v.getMake() != null) bucket(byMake, v.getMake()).add(v);
+        bucket(byType, v.getType()).add(v);
+    }
+
+    /**
+     * Takes a vehicle out of the campus, make and type indexes.
+     * @param v the vehicle
+     */
+    private void unindexVehicle(Vehicle v) {
+        Set<Vehicle> atCampus = campusBucket(v);
+        if (atCampus != null) atCampus.remove(v);
+        if (v.getMake() != null) bucket(byMake, v.getMake()).remove(v);
+        bucket(byType, v.getType()).remove(v);
+    }
+
+    /**
+     * Moves a vehicle to another campus, keeping the campus index in step.
+     * Use this rather than Vehicle.setCampus for vehicles in the fleet.
+     * @param v the vehicle
+     * @param campus its new campus
+     */
+    public void relocate(Vehicle v, Campus campus) {
+        if (v.getCampus() == campus) return;
+        Set<Vehicle> ofType = byType.get(v.getType());
+        boolean member = ofType != null && ofType.contains(v);
+        boolean listed = member && v.plateCode() >= 0 && byPlate.get(v.plateCode()) == v;
+        if (member) {
+            Set<Vehicle> from = campusBucket(v);
+            if (from != null) from.remove(v);
+        }
+        if (listed) markSlot(v, false);
+        v.setCampus(campus);
+        if (member) {
+            Set<Vehicle> to = campusBucket(v);
+            if (to != null) to.add(v);
+        }
+        if (listed) markSlot(v, true);
+    }
+
+    /**
+     * Returns the vehicles currently at a campus.
+     * @param campus the campus
+     * @return a new list of the vehicles, in no particular order
+     */
+    public List<Vehicle> atCampus(Campus campus) {
+        List<Vehicle> result = new List<>();
+        EnumMap<VehicleType, Set<Vehicle>> types = byCampus.get(campus);
+        if (types == null) return result;
+        for (Set<Vehicle> b : types.values()) {
+            for (Vehicle v : b) result.add(v);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the vehicles of one type currently at a campus.
+     * @param campus the campus
+     * @param type the vehicle type
+     * @return a new list of the vehicles, in no particular order
+     */
+    public List<Vehicle> atCampus(Campus campus, VehicleType type) {
+        EnumMap<VehicleType, Set<Vehicle>> types = byCampus.get(campus);
+        return copyOf(types == null ? null : types.get(type));
+    }
+
+    /**
+     * Returns the vehicles of one make.
+     * @param make the make
+     * @return a new list of the vehicles, in no particular order
+     */
+    public List<Vehicle> ofMake(Make make) {
+        return copyOf(byMake.get(make));
+    }
+
+    /**
+     * Returns the vehicles of one type.
+     * @param type the vehicle type
+     * @return a new list of the vehicles, in no particular order
+     */
+    public List<Vehicle> ofType(VehicleType type) {
+        return copyOf(byType.get(type));
+    }
+
+    /**
+     * Copies an index bucket so callers cannot change the index.
+     * @param bucket the bucket, or null for an empty one
+     * @return a new list with the same vehicles
+     */
+    private static List<Vehicle> copyOf(Set<Vehicle> bucket) {
+        if (bucket == null) return new List<>();
+        List<Vehicle> result = new List<>(bucket.size());
+        for (Vehicle v : bucket) result.add(v);
+        return result;
+    }
+
+    /**
+     * Adds a vehicle and indexes it. If the plate is already present
+     * the earlier vehicle stays the one returned by getByPlate.
+     * @param v the vehicle to add
+     */
+    @Override
+    public void add(Vehicle v) {
+        super.add(v);
+        indexPlate(v);
+        indexVehicle(v);
+    }
+
+    /**
+     * Adds every vehicle of another list and indexes their plates.
+     * @param other the vehicles to add
+     */
+    @Override
+    public void addAll(List<? extends Vehicle> other) {
+        super.addAll(other);
+        for (Vehicle v : other) {
+            indexPlate(v);
+            indexVehicle(v);
+        }
+    }
+
+    /**
+     * Removes a vehicle and updates the plate index.
+     * @param v the vehicle to remove
+     */
+    @Override
+    public void remove(Vehicle v) {
+        int i = indexOf(v);
+        if (i == -1) return;
+        Vehicle stored = get(i);
+        super.remove(v);
+        reindexPlate(stored);
+        unindexVehicle(stored);
+    }
+
+    /**
+     * Replaces the vehicle at a position and updates the plate index.
+     * @param index the position to replace
+     * @param v the new vehicle
+     */
+    @Override
+    public void set(int index, Vehicle v) {
+        Vehicle old = get(index);
+        super.set(index, v);
+        reindexPlate(old);
+        reindexPlate(v);
+        unindexVehicle(old);
+        indexVehicle(v);
+    }
+
+    /**
+     * Removes every vehicle matching a filter and rebuilds the plate index.
+     * @param filter returns true for vehicles to remove
+     * @return the number of vehicles removed
+     */
+    @Override
+    public int removeIf(Predicate<? super Vehicle> filter) {
+        int removed = super.removeIf(filter);
+        if (removed > 0) {
+            byPlate.clear();
+            byCampus.clear();
+            byMake.clear();
+            byType.clear();
+            plateSlots.clear();
+            usedSlots.clear();
+            Arrays.fill(inSlot, null);
+            slotsAt.clear();
+            for (Vehicle v : this) {
+                indexPlate(v);
+                indexVehicle(v);
+            }
+        }
+        return removed;
     }
 
     /**
@@ -43,41 +435,340 @@ public class Fleet extends List<Vehicle> {
      * @return the number of vehicles successfully loaded
      */
     public int load(Scanner sc) {
-        int added = 0;
+        LoadReport report = new LoadReport();
+        LineParser parser = new LineParser();
         while (sc.hasNextLine()) {
-            String line = sc.nextLine().trim();
-            if (line.isEmpty()) continue;
-
-            String[] tok = line.split("\\s+");
-            if (tok.length < 5) continue;
-
-            String plate = tok[0];
-            String dateStr = tok[1];
-            String makeStr = tok[2];
-            String mileageStr = tok[3];
-            String campusStr = tok[4];
-
-            String err = Vehicle.validatePlate(plate);
-            if (err != null) continue;
-
-            String[] md = dateStr.split("/");
-            Date obtained = new Date(
-                    Integer.parseInt(md[0]),
-                    Integer.parseInt(md[1]),
-                    Integer.parseInt(md[2])
-            );
-            Make make = Make.fromText(makeStr);
-            int mileage = Integer.parseInt(mileageStr);
-            Campus campus = Campus.fromText(campusStr);
-
-            if (this.getByPlate(plate) != null) continue;
-            Vehicle v = Vehicle.fromPlateAndBasics(plate, obtained, make, mileage, campus);
-            if (v == null) continue;
+            String line = sc.nextLine();
+            loadLine(parser, line, 0, line.length(), report);
+        }
+        return report.getLoaded();
+    }
+
+    /**
+     * Loads vehicles from a fleet file through a FileChannel. Lines are
+     * found and split in the raw bytes, so only the plate of each vehicle
+     * becomes a String.
+     * @param path the fleet file
+     * @return the counts and the line number and error of every skipped line
+     * @throws IOException if the file cannot be read
+     */
+    public LoadReport load(Path path) throws IOException {
+        LoadReport report = new LoadReport();
+        LineParser parser = new LineParser();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(READ_BUFFER);
+            ByteChars chars = new ByteChars(buf);
+            int scanned = 0;
+            while (true) {
+                boolean eof = channel.read(buf) < 0;
+                buf.flip();
+                int limit = buf.limit();
+                int start = 0;
+                for (int i = scanned; i < limit; i++) {
+                    if (buf.get(i) == '\n') {
+                        loadLine(parser, chars, start, i, report);
+                        start = i + 1;
+                    }
+                }
+                if (eof) {
+                    if (start < limit) loadLine(parser, chars, start, limit, report);
+                    break;
+                }
+                // keep the partial last line at the front of the buffer
+                buf.position(start);
+                buf.compact();
+                scanned = buf.position();
+                if (!buf.hasRemaining()) {
+                    ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2);
+                    buf.flip();
+                    bigger.put(buf);
+                    buf = bigger;
+                    chars = new ByteChars(buf);
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Loads a fleet file on the common fork-join pool. See loadParallel(Path, ForkJoinPool).
+     * @param path the fleet file
+     * @return the counts and the line number and error of every skipped line
+     * @throws IOException if the file cannot be read
+     */
+    public LoadReport loadParallel(Path path) throws IOException {
+        return loadParallel(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads a fleet file by splitting it at line breaks into chunks, mapping
+     * each chunk and parsing the chunks in parallel into separate buffers.
+     * The buffers are then merged in file order, so the fleet, the line
+     * numbers and the first-wins handling of repeated plates come out the
+     * same as with load(Path). Files too small to split, or a pool with a
+     * single thread, use load(Path).
+     * @param path the fleet file
+     * @param pool the pool that runs the parse tasks
+     * @return the counts and the line number and error of every skipped line
+     * @throws IOException if the file cannot be read
+     */
+    public LoadReport loadParallel(Path path, ForkJoinPool pool) throws IOException {
+        ChunkParse[] chunks;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) Math.min(size / MIN_CHUNK, (long) pool.getParallelism() * CHUNKS_PER_THREAD);
+            count = (int) Math.max(count, (size + MAX_CHUNK / 2 - 1) / (MAX_CHUNK / 2));
+            if (count < 2 || pool.getParallelism() < 2) return load(path);
+
+            chunks = new ChunkParse[count];
+            long start = 0;
+            int n = 0;
+            for (int k = 1; k <= count && start < size; k++) {
+                long end = k == count ? size : lineEnd(channel, Math.max(start, size * k / count), size);
+                if (end > start) {
+                    ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    chunks[n++] = new ChunkParse(bytes);
+                }
+                start = end;
+            }
+            pool.invoke(new ParseTask(chunks, 0, n));
+        }
+
+        LoadReport report = new LoadReport();
+        int total = 0;
+        for (ChunkParse c : chunks) {
+            if (c != null) total += c.vehicles.size();
+        }
+        ensureCapacity(size() + total);
+        for (ChunkParse c : chunks) {
+            if (c != null) merge(c, report);
+        }
+        return report;
+    }
+
+    /**
+     * Finds where the line containing a file position ends.
+     * @param channel the open file
+     * @param pos the position to start looking from
+     * @param size the size of the file
+     * @return the position just after the next line break, or size if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineEnd(FileChannel channel, long pos, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(READ_BUFFER);
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
 
+    /**
+     * Adds the vehicles of one parsed chunk, skipping plates already in the
+     * fleet, and copies its skipped lines into the report in line order.
+     * @param c the parsed chunk
+     * @param report the report of the whole load
+     */
+    private void merge(ChunkParse c, LoadReport report) {
+        int base = report.getLines();
+        LoadReport local = c.report;
+        int r = 0;
+        for (int k = 0; k < c.vehicles.size(); k++) {
+            int line = c.vehicleLines.get(k);
+            for (; r < local.getRejected() && local.rejectedLine(r) < line; r++) {
+                report.reject(base + local.rejectedLine(r), local.rejectedError(r));
+            }
+            Vehicle v = c.vehicles.get(k);
+            if (getByPlateCode(v.plateCode()) != null) {
+                report.reject(base + line, LoadError.DUPLICATE_PLATE);
+                continue;
+            }
             this.add(v);
-            added++;
+            report.loaded();
+        }
+        for (; r < local.getRejected(); r++) {
+            report.reject(base + local.rejectedLine(r), local.rejectedError(r));
+        }
+        report.linesRead(local.getLines());
+    }
+
+    /**
+     * One chunk of a parallel load: its bytes and, once parsed, its vehicles
+     * and skipped lines, numbered from the start of the chunk.
+     */
+    private static final class ChunkParse {
+        /** The mapped bytes of the chunk, whole lines only. */
+        private final ByteBuffer bytes;
+        /** Vehicles parsed from the chunk, in line order. */
+        private final List<Vehicle> vehicles = new List<>();
+        /** Line number of each vehicle within the chunk. */
+        private final IntList vehicleLines = new IntList();
+        /** Line count and parse errors of the chunk. */
+        private final LoadReport report = new LoadReport();
+
+        /**
+         * Creates a chunk over mapped bytes.
+         * @param bytes the bytes of the chunk
+         */
+        ChunkParse(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Parses every line of the chunk.
+         */
+        void parse() {
+            LineParser parser = new LineParser();
+            ByteChars chars = new ByteChars(bytes);
+            int limit = bytes.limit();
+            int start = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit && bytes.get(i) != '\n') continue;
+                if (i == limit && start == limit) break;
+                int line = report.lineRead();
+                Vehicle v = parser.parse(chars, start, i);
+                if (v != null) {
+                    vehicles.add(v);
+                    vehicleLines.add(line);
+                } else if (parser.error != null) {
+                    report.reject(line, parser.error);
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Fork-join task that parses a range of chunks, splitting the range in half
+     * until one chunk is left.
+     */
+    private static final class ParseTask extends RecursiveAction {
+        /** Serialization version; RecursiveAction is Serializable. */
+        private static final long serialVersionUID = 1L;
+        /** All chunks of the load. */
+        private final ChunkParse[] chunks;
+        /** First chunk, inclusive. */
+        private final int lo;
+        /** Last chunk, exclusive. */
+        private final int hi;
+
+        /**
+         * Creates a task for chunks[lo, hi).
+         * @param chunks all chunks of the load
+         * @param lo first chunk, inclusive
+         * @param hi last chunk, exclusive
+         */
+        ParseTask(ChunkParse[] chunks, int lo, int hi) {
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        /**
+         * Parses the range, splitting it while it has more than one chunk.
+         */
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                chunks[lo].parse();
+                return;
+            }
+            if (hi <= lo) return;
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ParseTask(chunks, lo, mid), new ParseTask(chunks, mid, hi));
+        }
+    }
+
+    /**
+     * Parses one line of a fleet file and adds its vehicle unless the line
+     * is blank, malformed or repeats a plate already in the fleet.
+     * @param parser the parser to use
+     * @param s the characters holding the line
+     * @param from the first index of the line
+     * @param to one past the last index of the line, before the line break
+     * @param report where the outcome is recorded
+     */
+    private void loadLine(LineParser parser, CharSequence s, int from, int to, LoadReport report) {
+        int line = report.lineRead();
+        Vehicle v = parser.parse(s, from, to);
+        if (v == null) {
+            if (parser.error != null) report.reject(line, parser.error);
+            return;
+        }
+        if (getByPlateCode(v.plateCode()) != null) {
+            report.reject(line, LoadError.DUPLICATE_PLATE);
+            return;
+        }
+        this.add(v);
+        report.loaded();
+    }
+
+    /**
+     * Turns fleet file lines into vehicles without splitting them into
+     * strings. A line holds plate, date obtained, make, mileage and campus
+     * separated by whitespace; anything after the fifth field is ignored.
+     * A parser is reused line after line, so it is not thread-safe.
+     */
+    static final class LineParser {
+        /** Number of fields used from each line. */
+        private static final int FIELDS = 5;
+        /** Start index of each field of the current line. */
+        private final int[] starts = new int[FIELDS];
+        /** End index of each field of the current line. */
+        private final int[] ends = new int[FIELDS];
+        /** Why the last line parsed was rejected, or null. */
+        LoadError error;
+
+        /**
+         * Parses one line.
+         * @param s the characters holding the line
+         * @param from the first index of the line
+         * @param to one past the last index of the line
+         * @return the vehicle, or null if the line is blank or rejected,
+         *         in which case error is null or says why
+         */
+        Vehicle parse(CharSequence s, int from, int to) {
+            error = null;
+            int n = 0;
+            int i = from;
+            while (n < FIELDS) {
+                while (i < to && s.charAt(i) <= ' ') i++;
+                if (i == to) break;
+                starts[n] = i;
+                while (i < to && s.charAt(i) > ' ') i++;
+                ends[n++] = i;
+            }
+            if (n == 0) return null;
+            if (n < FIELDS) return reject(LoadError.MISSING_FIELDS);
+
+            if (Vehicle.encodePlate(s, starts[0], ends[0]) < 0) return reject(LoadError.BAD_PLATE);
+            int packed = Date.parse(s, starts[1], ends[1]);
+            if (packed < 0) return reject(LoadError.BAD_DATE);
+            Make make = Make.fromText(s, starts[2], ends[2]);
+            if (make == null) return reject(LoadError.BAD_MAKE);
+            int mileage = ByteChars.parseNonNegativeInt(s, starts[3], ends[3]);
+            if (mileage < 0) return reject(LoadError.BAD_MILEAGE);
+            Campus campus = Campus.fromText(s, starts[4], ends[4]);
+            if (campus == null) return reject(LoadError.BAD_CAMPUS);
+
+            String plate = s.subSequence(starts[0], ends[0]).toString();
+            return Vehicle.fromPlateAndBasics(plate, Date.fromPacked(packed), make, mileage, campus);
+        }
+
+        /**
+         * Records why the current line was rejected.
+         * @param e the error
+         * @return null, so callers can return it directly
+         */
+        private Vehicle reject(LoadError e) {
+            error = e;
+            return null;
         }
-        return added;
     }
 
     /**
@@ -91,13 +782,10 @@ public class Fleet extends List<Vehicle> {
             return "There is no vehicle in the fleet.";
         }
 
-        Sort.selectionSort(this, (a, b) -> {
-            int c = a.getCampus().city().compareTo(b.getCampus().city());
-            if (c != 0) return c;
-            c = a.getMake().toString().compareTo(b.getMake().toString());
-            if (c != 0) return c;
-            return a.getObtained().compareTo(b.getObtained());
-        });
+        // city rank | make rank | obtained date, sorted in linear time
+        Sort.radixSort(this, v -> ((long) v.getCampus().cityRank() << 32)
+                | ((long) v.getMake().nameRank() << 24)
+                | v.getObtained().packed());
 
         StringBuilder sb = new StringBuilder();
         sb.append("*List of vehicles in the fleet, ordered by location/make/date obtained.\n");
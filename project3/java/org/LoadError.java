@@ -0,0 +1,43 @@
+package org.example.project3_v3;
+
+/**
+ * Reasons a line of a fleet file is not loaded
+ * @author joshuaH, alexG
+ */
+
+public enum LoadError {
+
+    /** The line has fewer than five fields. */
+    MISSING_FIELDS("fewer than 5 fields"),
+    /** The plate is not five digits and S, D or X. */
+    BAD_PLATE("invalid license plate"),
+    /** The date obtained is not a valid m/d/y date. */
+    BAD_DATE("invalid date obtained"),
+    /** The make is not one the fleet knows. */
+    BAD_MAKE("unknown make"),
+    /** The mileage is not a non-negative whole number. */
+    BAD_MILEAGE("invalid mileage"),
+    /** The campus is not one the fleet knows. */
+    BAD_CAMPUS("unknown campus"),
+    /** A vehicle with the same plate is already in the fleet. */
+    DUPLICATE_PLATE("plate already in the fleet");
+
+    /** Readable description of the error. */
+    private final String message;
+
+    /**
+     * Creates an error with its description.
+     * @param message the readable description
+     */
+    LoadError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the readable description of the error.
+     * @return the description
+     */
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.project3_v3;
+
+import util.IntList;
+
+/**
+ * Outcome of loading a fleet file: how many lines were read and loaded,
+ * and the line number and error of every line that was skipped.
+ * Line numbers start at 1 and count blank lines.
+ * @author joshuaH, alexG
+ */
+
+public class LoadReport {
+
+    /** Number of lines read. */
+    private int lines;
+
+    /** Number of vehicles added to the fleet. */
+    private int loaded;
+
+    /** Line numbers of the rejected lines, in file order. */
+    private final IntList rejectedLines = new IntList();
+
+    /** Ordinal of the LoadError of each rejected line. */
+    private final IntList rejectedErrors = new IntList();
+
+    /** Number of rejected lines per LoadError, indexed by ordinal. */
+    private final int[] counts = new int[LoadError.values().length];
+
+    /**
+     * Records that another line was read.
+     * @return the number of that line
+     */
+    int lineRead() {
+        return ++lines;
+    }
+
+    /**
+     * Records that a run of lines was read elsewhere, such as by a chunk
+     * of a parallel load.
+     * @param n the number of lines
+     */
+    void linesRead(int n) {
+        lines += n;
+    }
+
+    /**
+     * Records that a vehicle was added to the fleet.
+     */
+    void loaded() {
+        loaded++;
+    }
+
+    /**
+     * Records that a line was skipped.
+     * @param line the line number
+     * @param error why it was skipped
+     */
+    void reject(int line, LoadError error) {
+        rejectedLines.add(line);
+        rejectedErrors.add(error.ordinal());
+        counts[error.ordinal()]++;
+    }
+
+    /** @return the number of lines read */
+    public int getLines() {
+        return lines;
+    }
+
+    /** @return the number of vehicles added to the fleet */
+    public int getLoaded() {
+        return loaded;
+    }
+
+    /** @return the number of lines skipped because of an error */
+    public int getRejected() {
+        return rejectedLines.size();
+    }
+
+    /**
+     * Returns how many lines were skipped for one reason.
+     * @param error the reason
+     * @return the number of lines
+     */
+    public int count(LoadError error) {
+        return counts[error.ordinal()];
+    }
+
+    /**
+     * Returns the line number of a rejected line.
+     * @param i the position among the rejected lines, from 0
+     * @return the line number
+     */
+    public int rejectedLine(int i) {
+        return rejectedLines.get(i);
+    }
+
+    /**
+     * Returns why a rejected line was skipped.
+     * @param i the position among the rejected lines, from 0
+     * @return the error
+     */
+    public LoadError rejectedError(int i) {
+        return LoadError.values()[rejectedErrors.get(i)];
+    }
+
+    /**
+     * Summarizes the load with a count for each kind of error.
+     * @return the summary text
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(lines).append(" lines read, ").append(loaded).append(" vehicles loaded, ")
+                .append(getRejected()).append(" lines skipped");
+        String sep = " (";
+        for (LoadError e : LoadError.values()) {
+            if (counts[e.ordinal()] == 0) continue;
+            sb.append(sep).append(e.message()).append(": ").append(counts[e.ordinal()]);
+            sep = ", ";
+        }
+        if (getRejected() > 0) sb.append(")");
+        return sb.toString();
+    }
+}
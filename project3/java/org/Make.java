@@ -1,5 +1,8 @@
 package org.example.project3_v3;
 
+import util.ByteChars;
+import util.Sort;
+
 /**
  * Make of vehicles that are taken by fleet
  * @author joshuaH, alexG
@@ -15,6 +18,21 @@ public enum Make {
     /** Honda vehicles. */
     HONDA;
 
+    /** Alphabetical rank of each make's name, indexed by ordinal. */
+    private static final int[] NAME_RANK = Sort.ranks(values(), Make::name);
+
+    /** All makes, kept so lookups do not clone values() each time. */
+    private static final Make[] VALUES = values();
+
+    /**
+     * Returns the position of the make in alphabetical order, so sort keys
+     * can order by make name without comparing strings.
+     * @return the name rank, starting at 0
+     */
+    public int nameRank() {
+        return NAME_RANK[ordinal()];
+    }
+
     /**
      * converts a text string into enum cosntants
      * @param s the text representing the vehicle make
@@ -28,4 +46,19 @@ public enum Make {
             return null;
         }
     }
+
+    /**
+     * Looks up a make by name in a range of characters, ignoring case,
+     * without creating a string.
+     * @param s the characters holding the name
+     * @param from the first index of the name
+     * @param to one past the last index of the name
+     * @return the make, or null if the name is not a make
+     */
+    public static Make fromText(CharSequence s, int from, int to) {
+        for (Make m : VALUES) {
+            if (ByteChars.regionEqualsIgnoreCase(s, from, to, m.name())) return m;
+        }
+        return null;
+    }
 }
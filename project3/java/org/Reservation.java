@@ -4,6 +4,13 @@ import util.List;
 import util.Date;
 import util.Sort;
 
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
 /**
  * Represents the collection of the bookings
  * stores the bookings in an array and uses methods add, cancel and print for ease
@@ -12,16 +19,167 @@ import util.Sort;
 
 public class Reservation extends List<Booking> {
 
+    /**
+     * The bookings indexed by vehicle, kept in step with the list. Vehicles
+     * without a valid plate code are only kept in its end-date heap.
+     */
+    private final BookingIndex index;
+
+    /** Each employee's bookings; bookings without an employee are not indexed. */
+    private final EmployeeIndex byEmployee = new EmployeeIndex();
+
+    /**
+     * Creates an empty reservation with hashed lookups, so removing a booking
+     * on return or cancel does not scan every booking. Removal keeps the
+     * order of the remaining bookings, which the reports sort in place, so
+     * bookings that tie in the next report, such as one employee's in
+     * printByDept, stay in the order the last report left them. It keeps
+     * no per-day bits, so findAvailable checks each vehicle's interval tree.
+     */
+    public Reservation() {
+        super();
+        enableHashIndex();
+        setPreserveOrder(true);
+        index = new BookingIndex();
+    }
+
+    /**
+     * Creates an empty reservation sized to hold the given number of bookings without growing.
+     * It keeps no per-day bits and keeps the booking order, as Reservation() does.
+     * @param initialCapacity the expected number of bookings
+     */
+    public Reservation(int initialCapacity) {
+        super(initialCapacity);
+        enableHashIndex();
+        setPreserveOrder(true);
+        index = new BookingIndex();
+    }
+
+    /**
+     * Creates an empty reservation whose per-day bits, used by findAvailable,
+     * cover the days from a year before the anchor to two years after it.
+     * Removal keeps the booking order, as Reservation() does.
+     * @param initialCapacity the expected number of bookings
+     * @param anchor the date the horizon is placed around, such as the day
+     *               the desk opens
+     */
+    public Reservation(int initialCapacity, Date anchor) {
+        super(initialCapacity);
+        enableHashIndex();
+        setPreserveOrder(true);
+        index = new BookingIndex(anchor);
+    }
+
+    /**
+     * Adds a booking to the vehicle and employee indexes.
+     * @param b the booking
+     */
+    private void indexBooking(Booking b) {
+        index.add(b);
+        if (b.getEmployee() != null) byEmployee.add(b);
+    }
+
+    /**
+     * Takes a booking out of the vehicle and employee indexes.
+     * @param b the booking, the same object that was added
+     */
+    private void unindexBooking(Booking b) {
+        index.remove(b);
+        if (b.getEmployee() != null) byEmployee.remove(b);
+    }
+
+    /**
+     * Refuses a booking object that is already reserved. The index holds each
+     * object once, so adding it again would leave the list and index apart.
+     * @param b the booking
+     * @throws IllegalArgumentException if b is already in this reservation
+     */
+    private void checkNotReserved(Booking b) {
+        if (index.contains(b)) throw new IllegalArgumentException("Booking is already reserved: " + b);
+    }
+
+    /**
+     * Adds a booking and indexes it under its vehicle.
+     * @param b the booking to add
+     * @throws IllegalArgumentException if b is already in this reservation
+     */
+    @Override
+    public void add(Booking b) {
+        checkNotReserved(b);
+        super.add(b);
+        indexBooking(b);
+    }
+
+    /**
+     * Adds every booking of another list and indexes them. Nothing is added
+     * if any of them is already reserved or listed twice.
+     * @param other the bookings to add
+     * @throws IllegalArgumentException if a booking is already in this
+     *         reservation or appears twice in other
+     */
+    @Override
+    public void addAll(List<? extends Booking> other) {
+        Set<Booking> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Booking b : other) {
+            checkNotReserved(b);
+            if (!seen.add(b)) throw new IllegalArgumentException("Booking is listed twice: " + b);
+        }
+        super.addAll(other);
+        for (Booking b : other) indexBooking(b);
+    }
+
+    /**
+     * Removes a booking and takes it out of the vehicle index.
+     * @param b the booking to remove
+     */
+    @Override
+    public void remove(Booking b) {
+        int i = indexOf(b);
+        if (i == -1) return;
+        Booking stored = get(i);
+        super.remove(b);
+        unindexBooking(stored);
+    }
+
+    /**
+     * Replaces the booking at a position and updates the vehicle index.
+     * @param index the position to replace
+     * @param b the new booking
+     * @throws IllegalArgumentException if b is already in this reservation
+     *         at another position
+     */
+    @Override
+    public void set(int index, Booking b) {
+        Booking old = get(index);
+        if (b != old) checkNotReserved(b);
+        super.set(index, b);
+        unindexBooking(old);
+        indexBooking(b);
+    }
+
+    /**
+     * Removes every booking matching a filter and rebuilds the vehicle index.
+     * @param filter returns true for bookings to remove
+     * @return the number of bookings removed
+     */
+    @Override
+    public int removeIf(Predicate<? super Booking> filter) {
+        int removed = super.removeIf(filter);
+        if (removed > 0) {
+            index.clear();
+            byEmployee.clear();
+            for (Booking b : this) indexBooking(b);
+        }
+        return removed;
+    }
+
     /**
      * Checks whether any booking exists for a given vehicle plate.
      * @param plate the license plate string to check
      * @return true if any booking exists for the specified plate, false otherwise
      */
     public boolean hasAnyForPlate(String plate) {
-        for (Booking b : this) {
-            if (b.getVehicle().getPlate().equalsIgnoreCase(plate)) return true;
-        }
-        return false;
+        return index.hasVehicle(Vehicle.encodePlate(plate));
     }
 
     /**
@@ -33,12 +191,7 @@ public class Reservation extends List<Booking> {
      */
 
     public Booking findByPlateDates(String plate, Date begin, Date end) {
-        for (Booking b : this) {
-            if (b.getVehicle().getPlate().equalsIgnoreCase(plate)
-                    && b.getBegin().equals(begin)
-                    && b.getEnd().equals(end)) return b;
-        }
-        return null;
+        return index.find(Vehicle.encodePlate(plate), begin, end);
     }
 
     /**
@@ -49,30 +202,26 @@ public class Reservation extends List<Booking> {
      * @return the matching booking object, or null if not found
      */
     public Booking findByPlateEnd(String plate, Date end) {
-        for (Booking b : this) {
-            if (b.getVehicle().getPlate().equalsIgnoreCase(plate)
-                    && b.getEnd().equals(end)){
-                return b;
-            }
-        }
-        return null;
+        return index.find(Vehicle.encodePlate(plate), null, end);
+    }
+
+    /**
+     * Removes every booking that ended before the cutoff date in one pass,
+     * keeping the order of the bookings that remain.
+     * @param cutoff bookings ending strictly before this date are removed
+     * @return the number of bookings removed
+     */
+    public int removeEndedBefore(Date cutoff) {
+        return removeIf(b -> b.getEnd().compareTo(cutoff) < 0);
     }
 
     /**
-     * Returns the booking with the earliest ending date.
+     * Returns the booking with the earliest ending date. When several end on
+     * that date, any one of them may be returned.
      * @return the booking with the earliest end date, or null if list is empty
      */
     public Booking earliestEnd() {
-        if (this.isEmpty()){
-            return null;
-        }
-        int minIdx = 0;
-        for (int i = 1; i < this.size(); i++) {
-            if (this.get(i).getEnd().compareTo(this.get(minIdx).getEnd()) < 0){
-                minIdx = i;
-            }
-        }
-        return this.get(minIdx);
+        return index.earliestEnd();
     }
 
     /**
@@ -84,6 +233,7 @@ public class Reservation extends List<Booking> {
      * @return true if no overlap exists , false if  otherwise
      */
     public boolean isVehicleAvailable(Vehicle vehicle, Date begin, Date end) {
+        if (vehicle.plateCode() >= 0) return index.isFree(vehicle.plateCode(), begin.epochDay(), end.epochDay());
         for (Booking b : this) {
             if (!b.getVehicle().equals(vehicle)) continue;
             boolean endsBefore = end.compareTo(b.getBegin()) < 0;
@@ -93,6 +243,38 @@ public class Reservation extends List<Booking> {
         return true;
     }
 
+    /**
+     * Finds the vehicles of one type at a campus that have no booking
+     * overlapping the given dates. When the window lies inside the horizon
+     * of per-day bits, the bits of its days are joined once and each of the
+     * fleet's vehicles at the campus is looked up in them, so the cost grows
+     * with the number of days rather than the number of bookings. Any other
+     * window is checked against each vehicle's interval tree.
+     * Vehicles without a valid plate are never returned.
+     * @param fleet the fleet to choose from
+     * @param campus the campus the vehicle must be at
+     * @param type the vehicle type
+     * @param begin the first day of the window
+     * @param end the last day of the window
+     * @return a new list of the free vehicles in the fleet's slot order,
+     *         empty if begin is after end
+     */
+    public List<Vehicle> findAvailable(Fleet fleet, Campus campus, VehicleType type, Date begin, Date end) {
+        List<Vehicle> result = new List<>();
+        int first = begin.epochDay();
+        int last = end.epochDay();
+        if (first > last) return result;
+        BitSet candidates = fleet.slotsAt(campus, type);
+        BitSet booked = index.bookedDuring(first, last);
+        for (int s = candidates.nextSetBit(0); s >= 0; s = candidates.nextSetBit(s + 1)) {
+            Vehicle v = fleet.inSlot(s);
+            boolean free = booked != null ? index.isFree(v.plateCode(), booked)
+                    : index.isFree(v.plateCode(), first, last);
+            if (free) result.add(v);
+        }
+        return result;
+    }
+
     /**
      * Determines if an employee already has a conflicting booking during the given window.
      * @param emp   the employee making the booking
@@ -101,6 +283,7 @@ public class Reservation extends List<Booking> {
      * @return true if a booking conflict exists, false otherwise
      */
     public boolean hasEmployeeWindowConflict(Employee emp, Date begin, Date end) {
+        if (emp != null) return byEmployee.overlaps(emp, begin.epochDay(), end.epochDay());
         for (Booking book : this) {
             if (book.getEmployee() != emp) continue;
             boolean endsBefore = end.compareTo(book.getBegin()) < 0;
@@ -110,6 +293,133 @@ public class Reservation extends List<Booking> {
         return false;
     }
 
+    /**
+     * Checks a booking against the bookings already made, in the order the
+     * booking form reports problems.
+     * @param emp the employee making the booking
+     * @param vehicle the vehicle to book
+     * @param begin the begin date
+     * @param end the end date
+     * @return why the booking cannot be made, or null if it can
+     */
+    public BookingError check(Employee emp, Vehicle vehicle, Date begin, Date end) {
+        if (begin.compareTo(end) > 0) return BookingError.BAD_DATES;
+        if (!isVehicleAvailable(vehicle, begin, end)) return BookingError.VEHICLE_UNAVAILABLE;
+        if (hasEmployeeWindowConflict(emp, begin, end)) return BookingError.EMPLOYEE_CONFLICT;
+        return null;
+    }
+
+    /**
+     * Adds a batch of bookings, all of them or none. Each booking is checked
+     * against the bookings already made and against the rest of the batch;
+     * if any is refused, nothing is added. A booking refused for several
+     * reasons is reported with the one declared first in BookingError.
+     * Conflicts inside the batch are found by ordering the batch by vehicle
+     * and by employee, then by begin date, and sweeping each order once.
+     * @param batch the bookings to add
+     * @return the report, listing every refused booking
+     */
+    public BatchReport addBatch(List<Booking> batch) {
+        int n = batch.size();
+        BookingError[] errors = new BookingError[n];
+        for (int i = 0; i < n; i++) {
+            Booking b = batch.get(i);
+            errors[i] = check(b.getEmployee(), b.getVehicle(), b.getBegin(), b.getEnd());
+        }
+        sweepBatch(batch, errors);
+        // vehicles without a plate code cannot be ordered, so they are paired directly
+        for (int i = 0; i < n; i++) {
+            Booking a = batch.get(i);
+            if (a.getVehicle().plateCode() >= 0 || errors[i] == BookingError.BAD_DATES) continue;
+            for (int j = i + 1; j < n; j++) {
+                Booking b = batch.get(j);
+                if (errors[j] == BookingError.BAD_DATES || !a.getVehicle().equals(b.getVehicle())) continue;
+                if (a.getEnd().compareTo(b.getBegin()) < 0 || a.getBegin().compareTo(b.getEnd()) > 0) continue;
+                mark(errors, i, BookingError.VEHICLE_BATCH_CONFLICT);
+                mark(errors, j, BookingError.VEHICLE_BATCH_CONFLICT);
+            }
+        }
+
+        BatchReport report = new BatchReport(n);
+        for (int i = 0; i < n; i++) {
+            if (errors[i] != null) report.reject(i, errors[i]);
+        }
+        if (report.getRejected() == 0) {
+            addAll(batch);
+            report.committed();
+        }
+        return report;
+    }
+
+    /**
+     * Marks the bookings of a batch that overlap another booking of the
+     * batch with the same vehicle or the same employee. Vehicles without a
+     * valid plate code are left out.
+     * @param batch the bookings
+     * @param errors the error of each booking so far, updated in place
+     */
+    static void sweepBatch(List<Booking> batch, BookingError[] errors) {
+        sweep(batch, errors, b -> b.getVehicle().plateCode(), BookingError.VEHICLE_BATCH_CONFLICT);
+        sweep(batch, errors, b -> b.getEmployee() == null ? 0 : b.getEmployee().ordinal() + 1,
+                BookingError.EMPLOYEE_BATCH_CONFLICT);
+    }
+
+    /**
+     * Marks the bookings of a batch that overlap another booking of the
+     * batch with the same owner. In order of owner and begin date, a booking
+     * overlaps an earlier one when it begins on or before the latest end seen
+     * for its owner, and a later one when the next booking of its owner
+     * begins on or before its end. Bookings with bad dates are left out.
+     * @param batch the bookings
+     * @param errors the error of each booking so far, updated in place
+     * @param owner the owner of a booking as a non-negative int, or -1 to
+     *              leave the booking out
+     * @param error the error to record for an overlap
+     */
+    private static void sweep(List<Booking> batch, BookingError[] errors, ToIntFunction<Booking> owner,
+                              BookingError error) {
+        // owner | begin day; adding the signed day keeps owners apart
+        int[] order = Sort.order(batch, b -> ((long) owner.applyAsInt(b) << 32) + b.getBegin().epochDay());
+        int current = -1;
+        int latestEnd = 0;
+        for (int i : order) {
+            Booking b = batch.get(i);
+            int o = owner.applyAsInt(b);
+            if (o < 0 || errors[i] == BookingError.BAD_DATES) continue;
+            if (o != current) {
+                current = o;
+                latestEnd = Integer.MIN_VALUE;
+            }
+            if (b.getBegin().epochDay() <= latestEnd) mark(errors, i, error);
+            latestEnd = Math.max(latestEnd, b.getEnd().epochDay());
+        }
+        current = -1;
+        int nextBegin = 0;
+        for (int k = order.length - 1; k >= 0; k--) {
+            int i = order[k];
+            Booking b = batch.get(i);
+            int o = owner.applyAsInt(b);
+            if (o < 0 || errors[i] == BookingError.BAD_DATES) continue;
+            if (o != current) {
+                current = o;
+                nextBegin = Integer.MAX_VALUE;
+            }
+            if (nextBegin <= b.getEnd().epochDay()) mark(errors, i, error);
+            nextBegin = b.getBegin().epochDay();
+        }
+    }
+
+    /**
+     * Records an error for a booking unless it already has one declared
+     * earlier in BookingError.
+     * @param errors the error of each booking
+     * @param i the booking's position
+     * @param error the error
+     */
+    static void mark(BookingError[] errors, int i, BookingError error) {
+        if (errors[i] == null || errors[i].ordinal() > error.ordinal()) errors[i] = error;
+    }
+
     /**
      * Prints all bookings ordered by Campus city, Vehicle license plate, Booking begin date
      * Used for the pr command
@@ -117,21 +427,29 @@ public class Reservation extends List<Booking> {
      * @return A string representation of the sorted reservations.
      */
     public String printByLocationPlateBegin() {
-        if (this.isEmpty()) {
+        return printByLocationPlateBegin(this);
+    }
+
+    /**
+     * Prints bookings ordered by Campus city, Vehicle license plate, Booking
+     * begin date. Works on a plain list, so a snapshot of bookings can be
+     * printed without building a Reservation's indexes.
+     * @param bookings the bookings, sorted in place
+     * @return A string representation of the sorted reservations.
+     */
+    static String printByLocationPlateBegin(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
             return "There is no booking record.";
         }
 
-        Sort.selectionSort(this, (a, b) -> {
-            int c = a.getVehicle().getCampus().city().compareTo(b.getVehicle().getCampus().city());
-            if (c != 0) return c;
-            c = a.getVehicle().getPlate().compareTo(b.getVehicle().getPlate());
-            if (c != 0) return c;
-            return a.getBegin().compareTo(b.getBegin());
-        });
+        // city rank | plate | begin date, each key built once per booking
+        Sort.keyedSort(bookings, b -> ((long) b.getVehicle().getCampus().cityRank() << 56)
+                | (b.getVehicle().plateSortKey() << 23)
+                | b.getBegin().packed());
 
         StringBuilder sb = new StringBuilder();
         sb.append("*List of reservations ordered by location/license plate/beginning date.\n");
-        for (Booking b : this) {
+        for (Booking b : bookings) {
             sb.append(b.toString()).append("\n");
         }
         sb.append("*end of list.\n");
@@ -145,21 +463,29 @@ public class Reservation extends List<Booking> {
      * @return A string representation of the reservations sorted by department.
      */
     public String printByDept() {
-        if (this.isEmpty()) {
+        return printByDept(this);
+    }
+
+    /**
+     * Prints bookings ordered by department and employee. Works on a plain
+     * list, as printByLocationPlateBegin(List) does.
+     * @param bookings the bookings, sorted in place
+     * @return A string representation of the reservations sorted by department.
+     */
+    static String printByDept(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
             return "There is no booking record.";
         }
 
-        Sort.selectionSort(this, (a, b) -> {
-            int c = a.getEmployee().getDept().toString().compareTo(b.getEmployee().getDept().toString());
-            if (c != 0) return c;
-            return a.getEmployee().name().compareTo(b.getEmployee().name());
-        });
+        // department rank | employee rank, each key built once per booking
+        Sort.keyedSort(bookings, b -> ((long) b.getEmployee().getDept().nameRank() << 8)
+                | b.getEmployee().nameRank());
 
         StringBuilder sb = new StringBuilder();
         sb.append("*List of reservations ordered by department and employee.\n");
         Department cur = null;
-        for (int i = 0; i < this.size(); i++) {
-            Booking b = this.get(i);
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking b = bookings.get(i);
             if (cur == null || cur != b.getEmployee().getDept()) {
                 cur = b.getEmployee().getDept();
                 sb.append("--").append(cur).append("--\n");
@@ -0,0 +1,556 @@
+package org.example.project3_v3;
+
+import util.Date;
+import util.List;
+import util.Sort;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe front for the fleet, the bookings and the completed trips,
+ * so several booking desks can work at once.
+ * Bookings are split into stripes by vehicle, each stripe holding the
+ * same vehicle indexes a Reservation keeps under its own lock, so bookings
+ * of different vehicles rarely wait on each other. Each employee has a lock
+ * guarding their tree in one shared employee index, for the window conflict
+ * check. The fleet and the trips each have one lock.
+ * Locks are always taken in the order vehicle stripe, employee, fleet,
+ * trips. A batch takes every stripe it touches in index order and then
+ * every employee it touches in ordinal order, a snapshot takes every stripe
+ * in index order and nothing else, and everything else takes at most one
+ * stripe and one employee at a time.
+ * Only vehicles with a valid plate can be booked.
+ * @author joshuaH, alexG
+ */
+
+public class ReservationEngine {
+
+    /** Number of vehicle stripes used by the no-argument constructor. */
+    private static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * Bookings of the vehicles in one stripe, indexed as a Reservation
+     * indexes all of its bookings. The index is guarded by the stripe's lock.
+     */
+    private static final class Stripe {
+
+        /** The stripe's bookings. */
+        final BookingIndex bookings;
+
+        /** Lock guarding the stripe. */
+        final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Creates an empty stripe.
+         * @param bookings an empty index for the stripe's bookings
+         */
+        Stripe(BookingIndex bookings) {
+            this.bookings = bookings;
+        }
+    }
+
+    /** Bits of the stripe index. */
+    private final int stripeBits;
+
+    /** Bookings of the vehicles in each stripe. */
+    private final Stripe[] stripes;
+
+    /** Each employee's bookings across all stripes. */
+    private final EmployeeIndex byEmployee = new EmployeeIndex();
+
+    /** Lock guarding each employee's interval tree. */
+    private final EnumMap<Employee, ReentrantLock> employeeLocks = new EnumMap<>(Employee.class);
+
+    /** All vehicles. */
+    private final Fleet fleet = new Fleet();
+
+    /** Lock guarding the fleet and the vehicles in it; lookups share it. */
+    private final ReentrantReadWriteLock fleetLock = new ReentrantReadWriteLock();
+
+    /** All completed trips. */
+    private final TripList trips = new TripList();
+
+    /** Lock guarding the trips. */
+    private final ReentrantLock tripsLock = new ReentrantLock();
+
+    /**
+     * Creates an empty engine with the default number of vehicle stripes and
+     * no per-day bits, so findAvailable checks each vehicle's interval tree.
+     */
+    public ReservationEngine() {
+        this(DEFAULT_STRIPES, null);
+    }
+
+    /**
+     * Creates an empty engine with no per-day bits.
+     * @param stripes the number of vehicle stripes, rounded up to a power of two
+     * @throws IllegalArgumentException if stripes is not between 1 and 65536
+     */
+    public ReservationEngine(int stripes) {
+        this(stripes, null);
+    }
+
+    /**
+     * Creates an empty engine with the default number of vehicle stripes,
+     * whose per-day bits cover the days from a year before the anchor to two
+     * years after it, as in Reservation.
+     * @param anchor the date the horizon is placed around, such as the day
+     *               the desk opens
+     */
+    public ReservationEngine(Date anchor) {
+        this(DEFAULT_STRIPES, anchor);
+    }
+
+    /**
+     * Creates an empty engine.
+     * @param stripes the number of vehicle stripes, rounded up to a power of two
+     * @param anchor the date the per-day bits are placed around, or null to
+     *               keep none
+     * @throws IllegalArgumentException if stripes is not between 1 and 65536
+     */
+    public ReservationEngine(int stripes, Date anchor) {
+        if (stripes <= 0 || stripes > (1 << 16)) {
+            throw new IllegalArgumentException("Illegal stripe count: " + stripes);
+        }
+        this.stripeBits = Integer.SIZE - Integer.numberOfLeadingZeros(stripes - 1);
+        int n = 1 << stripeBits;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe(anchor == null ? new BookingIndex() : new BookingIndex(anchor));
+        }
+        // every key is present before the engine is shared, so the map is only read
+        for (Employee e : Employee.values()) {
+            employeeLocks.put(e, new ReentrantLock());
+        }
+    }
+
+    /**
+     * Returns the stripe of a vehicle.
+     * @param code the vehicle's plate code
+     * @return the stripe index
+     */
+    private int stripeOf(int code) {
+        return stripeBits == 0 ? 0 : (code * 0x9E3779B9) >>> (Integer.SIZE - stripeBits);
+    }
+
+    /**
+     * Checks that a booking names an employee and a vehicle with a valid plate.
+     * @param b the booking
+     * @throws IllegalArgumentException if it does not
+     */
+    private static void requireBookable(Booking b) {
+        if (b.getEmployee() == null) {
+            throw new IllegalArgumentException("Booking has no employee.");
+        }
+        if (b.getVehicle().plateCode() < 0) {
+            throw new IllegalArgumentException("Vehicle has no valid plate: " + b.getVehicle().getPlate());
+        }
+    }
+
+    /**
+     * Loads vehicles from a fleet file, as Fleet.loadParallel does.
+     * @param path the fleet file
+     * @return the load report
+     * @throws IOException if the file cannot be read
+     */
+    public LoadReport loadFleet(Path path) throws IOException {
+        fleetLock.writeLock().lock();
+        try {
+            return fleet.loadParallel(path);
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the fleet for a vehicle with the given license plate.
+     * @param plate the license plate
+     * @return the vehicle, or null if not found
+     */
+    public Vehicle getVehicle(String plate) {
+        fleetLock.readLock().lock();
+        try {
+            return fleet.getByPlate(plate);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes a booking if the dates are in order, the vehicle is free and the
+     * employee has no other booking in the window. The check and the insert
+     * happen under the vehicle's stripe lock and the employee's lock, so two
+     * desks cannot both book the same vehicle or employee for the same days.
+     * @param b the booking
+     * @return why the booking was refused, or null if it was made
+     * @throws IllegalArgumentException if the booking has no employee or its
+     *         vehicle has no valid plate
+     */
+    public BookingError book(Booking b) {
+        requireBookable(b);
+        if (b.getBegin().compareTo(b.getEnd()) > 0) return BookingError.BAD_DATES;
+        int code = b.getVehicle().plateCode();
+        int begin = b.getBegin().epochDay();
+        int end = b.getEnd().epochDay();
+        Stripe stripe = stripes[stripeOf(code)];
+        ReentrantLock employeeLock = employeeLocks.get(b.getEmployee());
+        stripe.lock.lock();
+        try {
+            if (!stripe.bookings.isFree(code, begin, end)) return BookingError.VEHICLE_UNAVAILABLE;
+            employeeLock.lock();
+            try {
+                if (byEmployee.overlaps(b.getEmployee(), begin, end)) return BookingError.EMPLOYEE_CONFLICT;
+                stripe.bookings.add(b);
+                byEmployee.add(b);
+                return null;
+            } finally {
+                employeeLock.unlock();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Makes a batch of bookings, all of them or none, as
+     * Reservation.addBatch does. The bookings are checked and added while
+     * holding the lock of every stripe and employee in the batch, so no desk
+     * can book a vehicle or employee of the batch in between.
+     * @param batch the bookings to make
+     * @return the report, listing every refused booking
+     * @throws IllegalArgumentException if a booking has no employee or its
+     *         vehicle has no valid plate; nothing is booked
+     */
+    public BatchReport addBatch(List<Booking> batch) {
+        int n = batch.size();
+        BookingError[] errors = new BookingError[n];
+        boolean[] touched = new boolean[stripes.length];
+        boolean[] employees = new boolean[Employee.values().length];
+        for (int i = 0; i < n; i++) {
+            Booking b = batch.get(i);
+            requireBookable(b);
+            touched[stripeOf(b.getVehicle().plateCode())] = true;
+            employees[b.getEmployee().ordinal()] = true;
+            if (b.getBegin().compareTo(b.getEnd()) > 0) errors[i] = BookingError.BAD_DATES;
+        }
+        // conflicts inside the batch need no lock
+        Reservation.sweepBatch(batch, errors);
+
+        Employee[] all = Employee.values();
+        for (int s = 0; s < stripes.length; s++) {
+            if (touched[s]) stripes[s].lock.lock();
+        }
+        try {
+            for (Employee e : all) {
+                if (employees[e.ordinal()]) employeeLocks.get(e).lock();
+            }
+            try {
+                for (int i = 0; i < n; i++) {
+                    if (errors[i] == BookingError.BAD_DATES) continue;
+                    Booking b = batch.get(i);
+                    int code = b.getVehicle().plateCode();
+                    int begin = b.getBegin().epochDay();
+                    int end = b.getEnd().epochDay();
+                    if (!stripes[stripeOf(code)].bookings.isFree(code, begin, end)) {
+                        Reservation.mark(errors, i, BookingError.VEHICLE_UNAVAILABLE);
+                    } else if (byEmployee.overlaps(b.getEmployee(), begin, end)) {
+                        Reservation.mark(errors, i, BookingError.EMPLOYEE_CONFLICT);
+                    }
+                }
+                BatchReport report = new BatchReport(n);
+                for (int i = 0; i < n; i++) {
+                    if (errors[i] != null) report.reject(i, errors[i]);
+                }
+                if (report.getRejected() > 0) return report;
+                for (Booking b : batch) {
+                    stripes[stripeOf(b.getVehicle().plateCode())].bookings.add(b);
+                    byEmployee.add(b);
+                }
+                report.committed();
+                return report;
+            } finally {
+                for (int k = all.length - 1; k >= 0; k--) {
+                    if (employees[k]) employeeLocks.get(all[k]).unlock();
+                }
+            }
+        } finally {
+            for (int s = stripes.length - 1; s >= 0; s--) {
+                if (touched[s]) stripes[s].lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cancels the booking of a vehicle with the given dates.
+     * @param plate the vehicle's license plate
+     * @param begin the booking's begin date
+     * @param end the booking's end date
+     * @return the cancelled booking, or null if there was none
+     */
+    public Booking cancel(String plate, Date begin, Date end) {
+        int code = Vehicle.encodePlate(plate);
+        if (code < 0) return null;
+        Stripe stripe = stripes[stripeOf(code)];
+        stripe.lock.lock();
+        try {
+            Booking b = stripe.bookings.find(code, begin, end);
+            if (b == null) return null;
+            unbook(stripe, b);
+            return b;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Completes the booking of a vehicle ending on the given date: records
+     * the trip, updates the vehicle's mileage, moves it to the drop-off
+     * campus and removes the booking.
+     * @param plate the vehicle's license plate
+     * @param end the booking's end date
+     * @param endMileage the mileage reading at return
+     * @return the completed trip
+     * @throws IllegalArgumentException if the vehicle or booking is not found,
+     *         or the mileage is less than the vehicle's current mileage
+     */
+    public Trip returnVehicle(String plate, Date end, int endMileage) {
+        int code = Vehicle.encodePlate(plate);
+        if (code < 0 || getVehicle(plate) == null) {
+            throw new IllegalArgumentException("Vehicle not found: " + plate);
+        }
+        Stripe stripe = stripes[stripeOf(code)];
+        stripe.lock.lock();
+        try {
+            Booking booking = stripe.bookings.find(code, null, end);
+            if (booking == null) {
+                throw new IllegalArgumentException("No matching reservation found for " + plate + " ending on " + end);
+            }
+            Trip trip;
+            fleetLock.writeLock().lock();
+            try {
+                Vehicle vehicle = booking.getVehicle();
+                if (endMileage < vehicle.getMileage()) {
+                    throw new IllegalArgumentException("End mileage (" + endMileage
+                            + ") cannot be less than start mileage (" + vehicle.getMileage() + ").");
+                }
+                boolean hasSurcharge = vehicle.getCampus() != booking.getDropoff();
+                trip = new Trip(booking, vehicle.getMileage(), endMileage, hasSurcharge);
+                vehicle.setMileage(endMileage);
+                fleet.relocate(vehicle, booking.getDropoff());
+                tripsLock.lock();
+                try {
+                    trips.add(trip);
+                } finally {
+                    tripsLock.unlock();
+                }
+            } finally {
+                fleetLock.writeLock().unlock();
+            }
+            unbook(stripe, booking);
+            return trip;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a booking from its stripe and its employee's tree. The caller
+     * holds the stripe lock.
+     * @param stripe the booking's stripe
+     * @param b the booking, as stored
+     */
+    private void unbook(Stripe stripe, Booking b) {
+        stripe.bookings.remove(b);
+        ReentrantLock employeeLock = employeeLocks.get(b.getEmployee());
+        employeeLock.lock();
+        try {
+            byEmployee.remove(b);
+        } finally {
+            employeeLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the vehicles of one type at a campus that have no booking
+     * overlapping the given dates. The vehicles at the campus are read under
+     * the fleet lock, then each is checked under its stripe's lock, one
+     * stripe at a time in index order, so a booking made meanwhile in a
+     * stripe already checked is not seen. Inside the horizon a stripe's
+     * per-day bits for the window are joined once and its vehicles looked
+     * up in them, as in Reservation.findAvailable.
+     * @param campus the campus the vehicle must be at
+     * @param type the vehicle type
+     * @param begin the first day of the window
+     * @param end the last day of the window
+     * @return a new list of the free vehicles, empty if begin is after end
+     */
+    public List<Vehicle> findAvailable(Campus campus, VehicleType type, Date begin, Date end) {
+        List<Vehicle> result = new List<>();
+        int first = begin.epochDay();
+        int last = end.epochDay();
+        if (first > last) return result;
+        List<Vehicle> candidates = new List<>();
+        fleetLock.readLock().lock();
+        try {
+            BitSet slots = fleet.slotsAt(campus, type);
+            for (int s = slots.nextSetBit(0); s >= 0; s = slots.nextSetBit(s + 1)) {
+                candidates.add(fleet.inSlot(s));
+            }
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+        int[] order = Sort.order(candidates, v -> stripeOf(v.plateCode()));
+        boolean[] free = new boolean[order.length];
+        for (int k = 0; k < order.length; ) {
+            int s = stripeOf(candidates.get(order[k]).plateCode());
+            Stripe stripe = stripes[s];
+            stripe.lock.lock();
+            try {
+                BitSet booked = stripe.bookings.bookedDuring(first, last);
+                for (; k < order.length && stripeOf(candidates.get(order[k]).plateCode()) == s; k++) {
+                    int code = candidates.get(order[k]).plateCode();
+                    free[order[k]] = booked != null ? stripe.bookings.isFree(code, booked)
+                            : stripe.bookings.isFree(code, first, last);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        for (int i = 0; i < free.length; i++) {
+            if (free[i]) result.add(candidates.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the booking with the earliest ending date. Each stripe is
+     * looked at under its own lock in turn, so the answer is the earliest
+     * among the bookings each stripe held when it was looked at.
+     * @return a booking with the earliest end date, or null if there are none
+     */
+    public Booking earliestEnd() {
+        Booking best = null;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Booking b = stripe.bookings.earliestEnd();
+                if (b != null && (best == null || b.getEnd().compareTo(best.getEnd()) < 0)) best = b;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Copies every booking into one list while holding every stripe lock,
+     * so the copy is a consistent snapshot.
+     * @return a new list of all bookings, in no particular order
+     */
+    public List<Booking> snapshotReservations() {
+        for (Stripe stripe : stripes) stripe.lock.lock();
+        try {
+            int size = 0;
+            for (Stripe stripe : stripes) size += stripe.bookings.size();
+            List<Booking> all = new List<>(size);
+            for (Stripe stripe : stripes) stripe.bookings.forEach(all::add);
+            return all;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) stripes[i].lock.unlock();
+        }
+    }
+
+    /**
+     * Copies every completed trip.
+     * @return a new trip list with all trips
+     */
+    public TripList snapshotTrips() {
+        tripsLock.lock();
+        try {
+            TripList all = new TripList(trips.size());
+            all.addAll(trips);
+            return all;
+        } finally {
+            tripsLock.unlock();
+        }
+    }
+
+    /**
+     * Prints the fleet ordered by location, make and date obtained.
+     * @return the report text
+     */
+    public String printFleet() {
+        fleetLock.writeLock().lock();
+        try {
+            // the report sorts the fleet in place
+            return fleet.printByLocationMakeDate();
+        } finally {
+            fleetLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prints a snapshot of the bookings ordered by location, plate and begin date.
+     * @return the report text
+     */
+    public String printByLocationPlateBegin() {
+        List<Booking> all = snapshotReservations();
+        fleetLock.readLock().lock();
+        try {
+            // campuses are read from the vehicles
+            return Reservation.printByLocationPlateBegin(all);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints a snapshot of the bookings ordered by department and employee.
+     * @return the report text
+     */
+    public String printByDept() {
+        List<Booking> all = snapshotReservations();
+        fleetLock.readLock().lock();
+        try {
+            // bookings are printed with their vehicles
+            return Reservation.printByDept(all);
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints a snapshot of the completed trips.
+     * @return the report text
+     */
+    public String printTrips() {
+        TripList all = snapshotTrips();
+        fleetLock.readLock().lock();
+        try {
+            // trips are printed with their vehicles
+            return all.printTrips();
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints a snapshot of the trip charges.
+     * @return the report text
+     */
+    public String printCharges() {
+        TripList all = snapshotTrips();
+        fleetLock.readLock().lock();
+        try {
+            // charges are read from the vehicles
+            return all.printCharges();
+        } finally {
+            fleetLock.readLock().unlock();
+        }
+    }
+}
@@ -54,4 +54,13 @@ public class Sedan extends Vehicle {
     protected String vehicleTypeName() {
         return "sedan";
     }
+
+    /**
+     * Returns the kind of this vehicle.
+     * @return VehicleType.SEDAN
+     */
+    @Override
+    public VehicleType getType() {
+        return VehicleType.SEDAN;
+    }
 }
@@ -85,6 +85,15 @@ public class Trip {
         return booking.equals(trip.booking);
     }
 
+    /**
+     * Returns the hash code of the booking, matching equals.
+     * @return the hash code of this trip
+     */
+    @Override
+    public int hashCode() {
+        return booking.hashCode();
+    }
+
 
 
     /**
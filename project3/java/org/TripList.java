@@ -13,6 +13,26 @@ import util.List;
 
 public class TripList extends List<Trip> {
 
+    /**
+     * Creates an empty trip list. Removal keeps the order of the remaining
+     * trips, which the reports sort in place, so a removal does not undo the
+     * order the last report left them in.
+     */
+    public TripList() {
+        super();
+        setPreserveOrder(true);
+    }
+
+    /**
+     * Creates an empty trip list sized to hold the given number of trips without growing.
+     * Removal keeps the trip order, as TripList() does.
+     * @param initialCapacity the expected number of trips
+     */
+    public TripList(int initialCapacity) {
+        super(initialCapacity);
+        setPreserveOrder(true);
+    }
+
     /**
      * Prints the list of completed trips ordered by license plate
      * and ending date using PT command
@@ -24,12 +44,9 @@ public class TripList extends List<Trip> {
             return "There is no completed trips.";
         }
 
-        Sort.selectionSort(this, (a, b) -> {
-            int c = a.getBooking().getVehicle().getPlate()
-                    .compareTo(b.getBooking().getVehicle().getPlate());
-            if (c != 0) return c;
-            return a.getBooking().getEnd().compareTo(b.getBooking().getEnd());
-        });
+        // plate | end date, each key built once per trip
+        Sort.keyedSort(this, t -> (t.getBooking().getVehicle().plateSortKey() << 23)
+                | t.getBooking().getEnd().packed());
 
         StringBuilder sb = new StringBuilder();
         sb.append("*List of completed trips ordered by license plate and ending date.\n");
@@ -65,14 +82,12 @@ public class TripList extends List<Trip> {
             return "There is no archived trips for the cost report.";
         }
 
-        Sort.selectionSort(this, (a, b) -> {
-            int c = a.getBooking().getEmployee().getDept().toString()
-                    .compareTo(b.getBooking().getEmployee().getDept().toString());
-            if (c != 0) return c;
-            c = a.getBooking().getVehicle().getPlate()
-                    .compareTo(b.getBooking().getVehicle().getPlate());
-            if (c != 0) return c;
-            return a.getBooking().getEnd().compareTo(b.getBooking().getEnd());
+        // department rank | plate | end date, sorted in linear time
+        Sort.radixSort(this, t -> {
+            Booking b = t.getBooking();
+            return ((long) b.getEmployee().getDept().nameRank() << 56)
+                    | (b.getVehicle().plateSortKey() << 23)
+                    | b.getEnd().packed();
         });
 
         DecimalFormat money = new DecimalFormat("$#,##0.00");
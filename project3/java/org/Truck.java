@@ -49,4 +49,13 @@ public class Truck extends Vehicle {
     protected String vehicleTypeName() {
         return "truck";
     }
+
+    /**
+     * Returns the kind of this vehicle.
+     * @return VehicleType.TRUCK
+     */
+    @Override
+    public VehicleType getType() {
+        return VehicleType.TRUCK;
+    }
 }
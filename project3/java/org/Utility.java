@@ -52,4 +52,13 @@ public class Utility extends Vehicle {
     protected String vehicleTypeName() {
         return "utility";
     }
+
+    /**
+     * Returns the kind of this vehicle.
+     * @return VehicleType.UTILITY
+     */
+    @Override
+    public VehicleType getType() {
+        return VehicleType.UTILITY;
+    }
 }
@@ -20,6 +20,11 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     private int mileage;
     /** Current campus location. */
     protected Campus campus;
+    /** The plate packed by encodePlate, or -1 if the plate is not valid. */
+    private final int plateCode;
+
+    /** Plate type letters in the order of their codes, starting at code 1. */
+    private static final String PLATE_TYPES = "SDX";
 
     /**
      * Construtor class that creates a new vehicle
@@ -35,6 +40,7 @@ public abstract class Vehicle implements Comparable<Vehicle> {
         this.make = make;
         this.mileage = mileage;
         this.campus = campus;
+        this.plateCode = encodePlate(plate);
     }
 
     /** @return the license plate  */
@@ -42,6 +48,43 @@ public abstract class Vehicle implements Comparable<Vehicle> {
         return plate;
     }
 
+    /** @return the plate packed by encodePlate, or -1 if the plate is not valid */
+    public int plateCode() {
+        return plateCode;
+    }
+
+    /**
+     * Packs a plate accepted by validatePlate into one int: the five digits
+     * as a number, shifted left two bits, plus 1, 2 or 3 for S, D or X.
+     * The type letter may be in either case.
+     * @param plate the license plate
+     * @return the plate code, or -1 if the plate is not valid
+     */
+    public static int encodePlate(CharSequence plate) {
+        if (plate == null) return -1;
+        return encodePlate(plate, 0, plate.length());
+    }
+
+    /**
+     * Packs a plate held in a range of characters, as encodePlate(CharSequence) does.
+     * @param s the characters holding the plate
+     * @param from the first index of the plate
+     * @param to one past the last index of the plate
+     * @return the plate code, or -1 if the plate is not valid
+     */
+    public static int encodePlate(CharSequence s, int from, int to) {
+        if (to - from != 6) return -1;
+        int digits = 0;
+        for (int i = from; i < from + 5; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            digits = digits * 10 + (c - '0');
+        }
+        int type = PLATE_TYPES.indexOf(Character.toUpperCase(s.charAt(from + 5))) + 1;
+        if (type == 0) return -1;
+        return (digits << 2) | type;
+    }
+
     /** @return the acquisition date */
     public Date getObtained() {
         return obtained;
@@ -62,6 +105,20 @@ public abstract class Vehicle implements Comparable<Vehicle> {
         return campus;
     }
 
+    /**
+     * Returns a numeric key that orders plates the same way as comparing
+     * the plate strings: the five digits as a number, then the type letter.
+     * Only meaningful for plates accepted by validatePlate.
+     * @return the plate sort key, using the low 33 bits
+     */
+    public long plateSortKey() {
+        long digits = 0;
+        for (int i = 0; i < 5; i++) {
+            digits = digits * 10 + (plate.charAt(i) - '0');
+        }
+        return (digits << 16) | plate.charAt(5);
+    }
+
     /**
      * Updates the mileage
      * @param m the new mileage value
@@ -71,7 +128,8 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     }
 
     /**
-     * Updates the current campus location.
+     * Updates the current campus location. For a vehicle in a Fleet use
+     * Fleet.relocate, which also moves it between the campus indexes.
      * @param c the new camppus where the vehicle is parked
      */
     public void setCampus(Campus c) {
@@ -117,9 +175,24 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     public boolean equals(Object obj) {
         if (!(obj instanceof Vehicle)) return false;
         Vehicle vehicle = (Vehicle) obj;
+        if (plateCode >= 0 || vehicle.plateCode >= 0) return plateCode == vehicle.plateCode;
         return this.plate.equalsIgnoreCase(vehicle.plate);
     }
 
+    /**
+     * Returns a hash code of the plate that ignores case, matching equals.
+     * @return the hash code of this vehicle
+     */
+    @Override
+    public int hashCode() {
+        if (plateCode >= 0) return plateCode;
+        int h = 0;
+        for (int i = 0; i < plate.length(); i++) {
+            h = 31 * h + Character.toUpperCase(plate.charAt(i));
+        }
+        return h;
+    }
+
     /**
      * Returns the string representation of a vehicle in the required output format.
      * @return a formatted {@code String} describing the vehicle
@@ -136,6 +209,12 @@ public abstract class Vehicle implements Comparable<Vehicle> {
      */
     protected abstract String vehicleTypeName();
 
+    /**
+     * Returns the kind of this vehicle.
+     * @return the vehicle type
+     */
+    public abstract VehicleType getType();
+
     /**
      * Factory method that constructs the correct vehicle subclass
      * based on the final character of the license plate.
@@ -166,8 +245,9 @@ public abstract class Vehicle implements Comparable<Vehicle> {
             return "license plate number must be exactly 6 characters.";
         }
 
+        // ASCII only, as encodePlate; Character.isDigit also takes other scripts' digits
         for (int i = 0; i < 5; i++)
-            if (!Character.isDigit(plate.charAt(i)))
+            if (plate.charAt(i) < '0' || plate.charAt(i) > '9')
                 return "first 5 characters must be numbers.";
         char last = Character.toUpperCase(plate.charAt(5));
         if (!(last == 'S' || last == 'D' || last == 'X'))
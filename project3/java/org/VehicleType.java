@@ -0,0 +1,35 @@
+package org.example.project3_v3;
+
+/**
+ * Kinds of vehicle in the fleet, named by the last letter of the plate
+ * @author joshuaH, alexG
+ */
+
+public enum VehicleType {
+
+    /** Sedan, plate ending in S. */
+    SEDAN('S'),
+    /** Utility vehicle, plate ending in D. */
+    UTILITY('D'),
+    /** Truck, plate ending in X. */
+    TRUCK('X');
+
+    /** The plate letter for this type. */
+    private final char plateLetter;
+
+    /**
+     * Creates a vehicle type with its plate letter.
+     * @param plateLetter the upper-case letter ending the plate
+     */
+    VehicleType(char plateLetter) {
+        this.plateLetter = plateLetter;
+    }
+
+    /**
+     * Returns the letter that ends the plates of this type.
+     * @return the upper-case plate letter
+     */
+    public char plateLetter() {
+        return plateLetter;
+    }
+}
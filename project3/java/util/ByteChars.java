@@ -0,0 +1,112 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only CharSequence view of the bytes in a ByteBuffer, one char per
+ * byte as in ISO-8859-1, so ASCII text read from a file can be scanned in
+ * place without decoding it into strings. Indexes are absolute positions
+ * in the buffer and ignore its current position.
+ * Also has helpers for reading fields out of any CharSequence.
+ * @author joshuaH, alexG
+ */
+public class ByteChars implements CharSequence {
+
+    /** The bytes being viewed. */
+    private final ByteBuffer bytes;
+
+    /**
+     * Creates a view of a buffer, from index 0 up to its limit.
+     * @param bytes the buffer to view
+     */
+    public ByteChars(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Returns the number of bytes viewed.
+     * @return the limit of the buffer
+     */
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    /**
+     * Returns the byte at an index as a char.
+     * @param index the absolute index in the buffer
+     * @return the char with the same value as the unsigned byte
+     */
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes.get(index) & 0xFF);
+    }
+
+    /**
+     * Copies a range of the bytes into a new String.
+     * @param start the first index
+     * @param end one past the last index
+     * @return the range as a String
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") of " + length());
+        }
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        byte[] copy = new byte[end - start];
+        bytes.get(start, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns all the viewed bytes as a String.
+     * @return the text up to the limit
+     */
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    /**
+     * Compares a range of characters with a text, ignoring the case of ASCII letters.
+     * @param s the characters
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @param text the text to compare with
+     * @return true if the range and the text hold the same letters
+     */
+    public static boolean regionEqualsIgnoreCase(CharSequence s, int from, int to, String text) {
+        if (to - from != text.length()) return false;
+        for (int i = 0; i < text.length(); i++) {
+            char a = s.charAt(from + i);
+            char b = text.charAt(i);
+            if (a == b) continue;
+            int lower = a | 0x20;
+            if (lower != (b | 0x20) || lower < 'a' || lower > 'z') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a range of decimal digits as a non-negative int.
+     * @param s the characters
+     * @param from the first index of the range
+     * @param to one past the last index of the range
+     * @return the value, or -1 if the range is empty, holds a non-digit or overflows
+     */
+    public static int parseNonNegativeInt(CharSequence s, int from, int to) {
+        if (from >= to) return -1;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            if (value > (Integer.MAX_VALUE - (c - '0')) / 10) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
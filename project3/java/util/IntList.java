@@ -0,0 +1,242 @@
+package util;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * List of int values stored in a plain int array, without boxing.
+ * Grows the same way as util.List and is meant for large columns such as
+ * odometer readings and packed plate keys.
+ * @author joshuaH, alexG
+ */
+public class IntList {
+
+    /** Initial capacity of a list created without a size hint. */
+    private static final int GROW_BY = 4;
+
+    /** Largest array length the list will ask for. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Array that stores the values. */
+    private int[] values;
+
+    /** Current number of values in the list. */
+    private int size;
+
+    /** Count of structural changes, checked by iterators. */
+    private int modCount;
+
+    /**
+     * Constructs an empty list with initial capacity
+     */
+    public IntList() {
+        this(GROW_BY);
+    }
+
+    /**
+     * Constructs an empty list that can hold the given number of values
+     * before it has to grow.
+     * @param initialCapacity the number of slots to allocate
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        values = new int[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Increases the capacity by half its length, or to minCapacity if larger.
+     * @param minCapacity the number of slots required
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("List capacity exceeded");
+        }
+        int newCapacity = values.length + (values.length >> 1);
+        if (newCapacity < GROW_BY) newCapacity = GROW_BY;
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) newCapacity = minCapacity;
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    /**
+     * Makes sure the list can hold at least minCapacity values without growing again.
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) grow(minCapacity);
+    }
+
+    /**
+     * Shrinks the internal array to the current size.
+     */
+    public void trimToSize() {
+        if (values.length > size) values = Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Adds a value to the end of the list.
+     * @param v the value to add
+     */
+    public void add(int v) {
+        if (size == values.length) grow(size + 1);
+        values[size++] = v;
+        modCount++;
+    }
+
+    /**
+     * Appends every value of the other list, in order, growing at most once.
+     * @param other the list whose values are added
+     */
+    public void addAll(IntList other) {
+        int n = other.size;
+        if (n == 0) return;
+        ensureCapacity(size + n);
+        System.arraycopy(other.values, 0, values, size, n);
+        size += n;
+        modCount++;
+    }
+
+    /**
+     * Returns the value at the specified index.
+     * @param index the zero-based index
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at the specified index.
+     * @param index the zero-based index to modify
+     * @param v the new value
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void set(int index, int v) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        values[index] = v;
+    }
+
+    /**
+     * Returns the index of the first occurrence of a value.
+     * @param v the value to search for
+     * @return the index of the value, or -1 if not found
+     */
+    public int indexOf(int v) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == v) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the value exists in this list.
+     * @param v the value to search for
+     * @return true if the value exists; false otherwise
+     */
+    public boolean contains(int v) {
+        return indexOf(v) != -1;
+    }
+
+    /**
+     * Removes the first occurrence of a value, moving the last value into
+     * its slot like util.List does.
+     * @param v the value to remove
+     * @return true if a value was removed
+     */
+    public boolean removeValue(int v) {
+        int idx = indexOf(v);
+        if (idx == -1) return false;
+        values[idx] = values[--size];
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes all values, keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Checks if the list has no values.
+     * @return true if the list is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values currently stored.
+     * @return the current size of the list
+     */
+    public int size() { return size; }
+
+    /**
+     * Sorts the values in ascending numeric order.
+     */
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * Copies the values into a new array of exactly the list size.
+     * @return the values in list order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns a stream over the values, without boxing.
+     * @return a sequential stream of the values
+     */
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    /**
+     * Returns a fail-fast iterator over the values, without boxing.
+     * @return an iterator for this list
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new ValueIterator();
+    }
+
+    /**
+     * Iterator over the values of the list.
+     */
+    private class ValueIterator implements PrimitiveIterator.OfInt {
+        /** Current position of the iterator. */
+        int current = 0;
+        /** The modification count the iterator started with. */
+        final int expectedModCount = modCount;
+
+        /**
+         * Checks if there are more values to iterate.
+         * @return true if additional values exist
+         */
+        public boolean hasNext() { return current < size; }
+
+        /**
+         * Returns the next value in iteration order.
+         * @return the next value
+         * @throws NoSuchElementException if no more values exist
+         * @throws ConcurrentModificationException if the list was structurally changed
+         */
+        public int nextInt() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            return values[current++];
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package util;
+
+import java.util.function.Consumer;
+
+/**
+ * Set of closed int intervals [lo, hi], each carrying a value, kept in an
+ * AVL tree ordered by lo. Every node also stores the largest hi in its
+ * subtree, so finding an interval that overlaps a query takes O(log n).
+ * Intervals may repeat; removal matches the value by identity.
+ * Not thread-safe.
+ * @param <V> the type of the values
+ * @author joshuaH, alexG
+ */
+public class IntervalTree<V> {
+
+    /** Root of the tree, null when empty. */
+    private Node<V> root;
+
+    /** Number of intervals in the tree. */
+    private int size;
+
+    /** Set by remove when the value was found. */
+    private boolean removed;
+
+    /**
+     * A tree node holding one interval.
+     * @param <V> the type of the value
+     */
+    private static final class Node<V> {
+        /** Start of the interval. */
+        int lo;
+        /** End of the interval, inclusive. */
+        int hi;
+        /** The value stored with the interval. */
+        V value;
+        /** Largest hi in this subtree. */
+        int maxHi;
+        /** Height of this subtree; a leaf has height 1. */
+        int height;
+        /** Subtree of intervals starting at or before lo. */
+        Node<V> left;
+        /** Subtree of intervals starting at or after lo. */
+        Node<V> right;
+
+        /**
+         * Creates a leaf.
+         * @param lo start of the interval
+         * @param hi end of the interval
+         * @param value the value
+         */
+        Node(int lo, int hi, V value) {
+            this.lo = lo;
+            this.hi = hi;
+            this.value = value;
+            this.maxHi = hi;
+            this.height = 1;
+        }
+    }
+
+    /**
+     * Adds an interval. An interval with hi less than lo is kept as given and
+     * overlaps a query [qlo, qhi] only when qlo &lt;= hi and lo &lt;= qhi, the same
+     * test used for every interval.
+     * @param lo start of the interval
+     * @param hi end of the interval, inclusive
+     * @param value the value to store with it
+     */
+    public void insert(int lo, int hi, V value) {
+        root = insert(root, lo, hi, value);
+        size++;
+    }
+
+    /**
+     * Adds an interval below a node.
+     * @param n the subtree root, or null
+     * @param lo start of the interval
+     * @param hi end of the interval
+     * @param value the value
+     * @return the new subtree root
+     */
+    private Node<V> insert(Node<V> n, int lo, int hi, V value) {
+        if (n == null) return new Node<>(lo, hi, value);
+        if (lo < n.lo) n.left = insert(n.left, lo, hi, value);
+        else n.right = insert(n.right, lo, hi, value);
+        return rebalance(n);
+    }
+
+    /**
+     * Removes the interval starting at lo whose value is the given object.
+     * @param lo start of the interval
+     * @param value the value stored with it, compared by identity
+     * @return true if an interval was removed
+     */
+    public boolean remove(int lo, V value) {
+        removed = false;
+        root = remove(root, lo, value);
+        if (removed) size--;
+        return removed;
+    }
+
+    /**
+     * Removes an interval below a node. Intervals with equal lo can sit on
+     * both sides of each other after rotations, so both sides are searched.
+     * @param n the subtree root, or null
+     * @param lo start of the interval
+     * @param value the value, compared by identity
+     * @return the new subtree root
+     */
+    private Node<V> remove(Node<V> n, int lo, V value) {
+        if (n == null) return null;
+        if (lo < n.lo) {
+            n.left = remove(n.left, lo, value);
+        } else if (lo > n.lo) {
+            n.right = remove(n.right, lo, value);
+        } else if (n.value == value) {
+            removed = true;
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+            Node<V> next = n.right;
+            while (next.left != null) next = next.left;
+            n.lo = next.lo;
+            n.hi = next.hi;
+            n.value = next.value;
+            n.right = removeFirst(n.right);
+        } else {
+            n.left = remove(n.left, lo, value);
+            if (!removed) n.right = remove(n.right, lo, value);
+        }
+        return rebalance(n);
+    }
+
+    /**
+     * Removes the leftmost node of a subtree.
+     * @param n the subtree root
+     * @return the new subtree root
+     */
+    private Node<V> removeFirst(Node<V> n) {
+        if (n.left == null) return n.right;
+        n.left = removeFirst(n.left);
+        return rebalance(n);
+    }
+
+    /**
+     * Checks whether any interval overlaps [lo, hi].
+     * @param lo start of the query
+     * @param hi end of the query, inclusive
+     * @return true if some interval shares at least one point with the query
+     */
+    public boolean overlaps(int lo, int hi) {
+        return findOverlap(lo, hi) != null;
+    }
+
+    /**
+     * Returns the value of some interval that overlaps [lo, hi].
+     * @param lo start of the query
+     * @param hi end of the query, inclusive
+     * @return the value, or null if no interval overlaps
+     */
+    public V findOverlap(int lo, int hi) {
+        Node<V> n = root;
+        while (n != null && n.maxHi >= lo) {
+            if (n.lo <= hi && n.hi >= lo) return n.value;
+            // an interval on the left reaching lo but not overlapping starts
+            // after hi, and so does everything on the right
+            if (n.left != null && n.left.maxHi >= lo) n = n.left;
+            else if (n.lo > hi) return null;
+            else n = n.right;
+        }
+        return null;
+    }
+
+    /**
+     * Passes the value of every interval that overlaps [lo, hi] to an action,
+     * in order of lo.
+     * @param lo start of the query
+     * @param hi end of the query, inclusive
+     * @param action called once per overlapping interval
+     */
+    public void forEachOverlap(int lo, int hi, Consumer<? super V> action) {
+        forEachOverlap(root, lo, hi, action);
+    }
+
+    /**
+     * Visits the overlapping intervals below a node, skipping subtrees that
+     * end before lo or start after hi.
+     * @param n the subtree root, or null
+     * @param lo start of the query
+     * @param hi end of the query
+     * @param action called once per overlapping interval
+     */
+    private void forEachOverlap(Node<V> n, int lo, int hi, Consumer<? super V> action) {
+        if (n == null || n.maxHi < lo) return;
+        forEachOverlap(n.left, lo, hi, action);
+        if (n.lo > hi) return;
+        if (n.hi >= lo) action.accept(n.value);
+        forEachOverlap(n.right, lo, hi, action);
+    }
+
+    /**
+     * Returns the number of intervals.
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the tree is empty.
+     * @return true if there are no intervals
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the height of a subtree.
+     * @param n the subtree root, or null
+     * @return the height, 0 for null
+     */
+    private static int height(Node<?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    /**
+     * Recomputes the height and maxHi of a node from its children.
+     * @param n the node
+     */
+    private static void update(Node<?> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        int max = n.hi;
+        if (n.left != null && n.left.maxHi > max) max = n.left.maxHi;
+        if (n.right != null && n.right.maxHi > max) max = n.right.maxHi;
+        n.maxHi = max;
+    }
+
+    /**
+     * Restores the AVL balance at a node whose children are balanced.
+     * @param n the node
+     * @return the new subtree root
+     */
+    private Node<V> rebalance(Node<V> n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     * @param n the subtree root
+     * @return the new subtree root, n's right child
+     */
+    private Node<V> rotateLeft(Node<V> n) {
+        Node<V> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    /**
+     * Rotates a subtree to the right.
+     * @param n the subtree root
+     * @return the new subtree root, n's left child
+     */
+    private Node<V> rotateRight(Node<V> n) {
+        Node<V> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+}
@@ -1,7 +1,15 @@
 package util;
 
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * List from scratch
@@ -10,21 +18,77 @@ import java.util.NoSuchElementException;
  */
 public class List<E> implements Iterable<E> {
 
-    /** Number of additional slots list can go up when list grows. */
+    /** Initial capacity of a list created without a size hint. */
     private static final int GROW_BY = 4;
 
+    /**
+     * Largest array length the list will ask for; a few VMs reserve header
+     * words in the array so stay just under Integer.MAX_VALUE.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
     /**  array that stores list elements. */
     private E[] objects;
 
     /** Current number of elements in the list. */
     private int size;
 
+    /**
+     * Count of structural changes (adds and removes), checked by iterators
+     * so they fail fast instead of skipping or repeating elements.
+     */
+    private int modCount;
+
+    /**
+     * Optional side index from element to the lowest slot holding an equal
+     * element. Null until enableHashIndex() is called.
+     */
+    private HashMap<E, Slot> index;
+
+    /**
+     * When true, remove shifts later elements down instead of moving the
+     * last element into the hole, so the current order is kept.
+     */
+    private boolean keepOrder;
+
+    /**
+     * Index entry for one distinct element value.
+     */
+    private static final class Slot {
+        /** Lowest position in the array holding an equal element. */
+        int first;
+        /** How many equal elements the list currently holds. */
+        int count;
+
+        /**
+         * Creates an entry for a value seen once at the given position.
+         * @param first the position of the value
+         */
+        Slot(int first) {
+            this.first = first;
+            this.count = 1;
+        }
+    }
+
     /**
      * Constructs an empty list with initial capacity
      */
-    @SuppressWarnings("unchecked")
     public List() {
-        objects = (E[]) new Object[GROW_BY];
+        this(GROW_BY);
+    }
+
+    /**
+     * Constructs an empty list that can hold the given number of elements
+     * before it has to grow. Useful when the size of a load is known up front.
+     * @param initialCapacity the number of slots to allocate
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    @SuppressWarnings("unchecked")
+    public List(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        objects = (E[]) new Object[initialCapacity];
         size = 0;
     }
     /**
@@ -33,7 +97,21 @@ public class List<E> implements Iterable<E> {
      * @return the index of the element, or -1  if not found
      */
     private int find(E element) {
-        for (int i = 0; i < size; i++) {
+        if (index != null) {
+            Slot s = index.get(element);
+            return s == null ? -1 : s.first;
+        }
+        return scan(element, 0);
+    }
+
+    /**
+     * Linear search for an equal element starting at a position.
+     * @param element the element to search for
+     * @param from the first position to look at
+     * @return the index of the element, or -1 if not found
+     */
+    private int scan(Object element, int from) {
+        for (int i = from; i < size; i++) {
             if (objects[i].equals(element)){
                 return i;
             }
@@ -42,17 +120,118 @@ public class List<E> implements Iterable<E> {
     }
 
     /**
-     * Increases the capacity of the internal array by growby
+     * Increases the capacity of the internal array so it holds at least
+     * minCapacity elements. The array grows by half its length each time so a
+     * run of appends costs amortized constant time per element.
+     * @param minCapacity the number of slots required
      */
-    @SuppressWarnings("unchecked")
-    private void grow() {
-        E[] n = (E[]) new Object[objects.length + GROW_BY];
-        for (int i = 0; i < size; i++){
-            n[i] = objects[i];
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("List capacity exceeded");
         }
+        int newCapacity = objects.length + (objects.length >> 1);
+        if (newCapacity < GROW_BY) newCapacity = GROW_BY;
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) newCapacity = minCapacity;
+        resize(newCapacity);
+    }
+
+    /**
+     * Copies the elements into a new array of exactly the given length.
+     * @param capacity the new array length, at least size
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        E[] n = (E[]) new Object[capacity];
+        System.arraycopy(objects, 0, n, 0, size);
         objects = n;
     }
 
+    /**
+     * Makes sure the list can hold at least minCapacity elements without
+     * growing again. Call before a bulk load when the count is known.
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > objects.length) grow(minCapacity);
+    }
+
+    /**
+     * Shrinks the internal array to the current size, releasing unused slots.
+     */
+    public void trimToSize() {
+        if (objects.length > size) resize(size);
+    }
+
+    /**
+     * Turns on the hashed lookup mode. After this call contains, indexOf and
+     * remove run in constant expected time instead of scanning the array.
+     * Elements must implement hashCode consistently with equals, and the
+     * fields used by equals must not change while the element is stored.
+     */
+    public void enableHashIndex() {
+        if (index != null) return;
+        index = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            indexAdd(objects[i], i);
+        }
+    }
+
+    /**
+     * Checks whether the hashed lookup mode is on.
+     * @return true if the list keeps a hash index
+     */
+    public boolean isHashIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Chooses how remove fills the hole left by an element. The default moves
+     * the last element into it, which is constant time but changes the order.
+     * Order-preserving removal shifts the tail down one slot instead.
+     * @param preserve true to keep the relative order of remaining elements
+     */
+    public void setPreserveOrder(boolean preserve) {
+        keepOrder = preserve;
+    }
+
+    /**
+     * Checks whether remove keeps the relative order of the remaining elements.
+     * @return true if removal is order-preserving
+     */
+    public boolean isPreserveOrder() {
+        return keepOrder;
+    }
+
+    /**
+     * Records that an element now sits at the given position.
+     * @param e the element stored
+     * @param pos its position in the array
+     */
+    private void indexAdd(E e, int pos) {
+        Slot s = index.get(e);
+        if (s == null) {
+            index.put(e, new Slot(pos));
+        } else {
+            s.count++;
+            if (pos < s.first) s.first = pos;
+        }
+    }
+
+    /**
+     * Records that an element left the given position. The array must
+     * already reflect the change so a rescan finds the next occurrence.
+     * @param e the element that was removed
+     * @param pos the position it was removed from
+     */
+    private void indexRemove(E e, int pos) {
+        Slot s = index.get(e);
+        if (--s.count == 0) {
+            index.remove(e);
+        } else if (s.first == pos) {
+            s.first = scan(e, pos);
+        }
+    }
+
     /**
      * Checks whether the specified element exists in this list.
      * @param element the element to search for
@@ -67,8 +246,26 @@ public class List<E> implements Iterable<E> {
      * @param e the element to add
      */
     public void add(E e) {
-        if (size == objects.length) grow();
+        if (size == objects.length) grow(size + 1);
         objects[size++] = e;
+        modCount++;
+        if (index != null) indexAdd(e, size - 1);
+    }
+
+    /**
+     * Appends every element of the other list, in order, growing at most once.
+     * @param other the list whose elements are added
+     */
+    public void addAll(List<? extends E> other) {
+        int n = other.size;
+        if (n == 0) return;
+        ensureCapacity(size + n);
+        System.arraycopy(other.objects, 0, objects, size, n);
+        size += n;
+        modCount++;
+        if (index != null) {
+            for (int i = size - n; i < size; i++) indexAdd(objects[i], i);
+        }
     }
 
     /**
@@ -78,9 +275,68 @@ public class List<E> implements Iterable<E> {
     public void remove(E element) {
         int idx = find(element);
         if (idx == -1) return;
-        objects[idx] = objects[size - 1];
+        modCount++;
+        if (keepOrder) {
+            removeShifting(idx);
+            return;
+        }
+        E removed = objects[idx];
+        E moved = objects[size - 1];
+        objects[idx] = moved;
         objects[size - 1] = null;
         size--;
+        if (index != null) {
+            indexRemove(removed, idx);
+            if (idx < size) {
+                Slot s = index.get(moved);
+                if (s.first > idx) s.first = idx;
+            }
+        }
+    }
+
+    /**
+     * Removes the element at a position by shifting the tail down one slot.
+     * @param idx the position to remove
+     */
+    private void removeShifting(int idx) {
+        E removed = objects[idx];
+        System.arraycopy(objects, idx + 1, objects, idx, size - idx - 1);
+        objects[--size] = null;
+        if (index == null) return;
+        indexRemove(removed, idx);
+        // every element past idx moved down one slot
+        for (int i = idx; i < size; i++) {
+            Slot s = index.get(objects[i]);
+            if (s.first == i + 1) s.first = i;
+        }
+    }
+
+    /**
+     * Removes every element matching the filter, keeping the order of the
+     * elements that remain. Every element is tested before any is moved, so
+     * if the filter throws, the list is left unchanged.
+     * @param filter returns true for elements to remove
+     * @return the number of elements removed
+     */
+    public int removeIf(Predicate<? super E> filter) {
+        BitSet matched = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(objects[i])) matched.set(i);
+        }
+        int removed = matched.cardinality();
+        if (removed == 0) return 0;
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            if (!matched.get(r)) objects[w++] = objects[r];
+        }
+        for (int i = w; i < size; i++) objects[i] = null;
+        size = w;
+        modCount++;
+        if (index != null) {
+            index.clear();
+            for (int i = 0; i < size; i++) indexAdd(objects[i], i);
+        }
+        return removed;
     }
 
     /**
@@ -111,7 +367,38 @@ public class List<E> implements Iterable<E> {
      * @param element     the new element to store
      * @throws ArrayIndexOutOfBoundsException if the index is invalid
      */
-    public void set(int index, E element) { objects[index] = element; }
+    public void set(int index, E element) {
+        E old = objects[index];
+        objects[index] = element;
+        if (this.index != null) {
+            indexRemove(old, index);
+            indexAdd(element, index);
+        }
+    }
+
+    /**
+     * Copies the elements into a new array of exactly the list size.
+     * @return the elements in list order
+     */
+    public Object[] toArray() {
+        Object[] a = new Object[size];
+        System.arraycopy(objects, 0, a, 0, size);
+        return a;
+    }
+
+    /**
+     * Overwrites the elements with a reordering of themselves, as produced by
+     * the routines in Sort. Rebuilds the hash index once instead of paying
+     * for one update per moved element.
+     * @param ordered the same elements as the list, in their new order
+     */
+    void replaceContents(Object[] ordered) {
+        System.arraycopy(ordered, 0, objects, 0, size);
+        if (index != null) {
+            index.clear();
+            for (int i = 0; i < size; i++) indexAdd(objects[i], i);
+        }
+    }
 
     /**
      * Returns the index of the specified element.
@@ -128,11 +415,39 @@ public class List<E> implements Iterable<E> {
     public Iterator<E> iterator() { return new ListIterator(); }
 
     /**
-     * Inner class implementing iterator for list
+     * Returns a spliterator over the elements of this list. It reports SIZED
+     * and SUBSIZED and splits by halving the index range, so parallel streams
+     * divide the work evenly. It is fail-fast like the iterator.
+     * @return a spliterator for this list
+     */
+    @Override
+    public Spliterator<E> spliterator() { return new ListSpliterator(0, -1, 0); }
+
+    /**
+     * Returns a sequential stream over the elements of this list.
+     * @return a stream of the elements
+     */
+    public Stream<E> stream() { return StreamSupport.stream(spliterator(), false); }
+
+    /**
+     * Returns a parallel stream over the elements of this list. The list must
+     * not be changed while the stream runs.
+     * @return a possibly parallel stream of the elements
+     */
+    public Stream<E> parallelStream() { return StreamSupport.stream(spliterator(), true); }
+
+    /**
+     * Inner class implementing iterator for list.
+     * The iterator is fail-fast: adding or removing elements through the list
+     * after it was created makes the next call to next() throw
+     * ConcurrentModificationException. The check is not a lock; a list
+     * shared between threads still needs one.
      */
     private class ListIterator implements Iterator<E> {
         /** Current position of the iterator. */
         int current = 0;
+        /** The modification count the iterator started with. */
+        final int expectedModCount = modCount;
         /**
          * Checks if there are more elements to iterate.
          * @return true if additional elements exist
@@ -143,10 +458,112 @@ public class List<E> implements Iterable<E> {
          * Returns the next element in iteration order.
          * @return the next element
          * @throws NoSuchElementException if no more elements exist
+         * @throws ConcurrentModificationException if the list was structurally changed
          */
         public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
             if (!hasNext()) throw new NoSuchElementException();
             return objects[current++];
         }
     }
+
+    /**
+     * Index-range spliterator over the backing array. The range end and the
+     * expected modification count are bound on first use, so a spliterator
+     * created before the list is filled still sees every element.
+     */
+    private final class ListSpliterator implements Spliterator<E> {
+        /** Next position to visit. */
+        private int current;
+        /** One past the last position, or -1 until first use. */
+        private int fence;
+        /** The modification count when the range was bound. */
+        private int expectedModCount;
+
+        /**
+         * Creates a spliterator over a range of positions.
+         * @param origin the first position
+         * @param fence one past the last position, or -1 to bind lazily
+         * @param expectedModCount the modification count of the range
+         */
+        ListSpliterator(int origin, int fence, int expectedModCount) {
+            this.current = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds the range end on first use.
+         * @return the range end
+         */
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        /**
+         * Splits off the first half of the remaining range.
+         * @return a spliterator over the first half, or null if too small to split
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int mid = (current + hi) >>> 1;
+            if (current >= mid) return null;
+            ListSpliterator prefix = new ListSpliterator(current, mid, expectedModCount);
+            current = mid;
+            return prefix;
+        }
+
+        /**
+         * Passes the next element to the action.
+         * @param action the action to run
+         * @return false if no elements remain
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            int hi = getFence();
+            if (current >= hi) return false;
+            E e = objects[current++];
+            action.accept(e);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        /**
+         * Passes every remaining element to the action.
+         * @param action the action to run
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            int hi = getFence();
+            E[] a = objects;
+            for (int i = current; i < hi; i++) {
+                action.accept(a[i]);
+            }
+            current = hi;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        /**
+         * Returns the exact number of elements left in the range.
+         * @return the remaining element count
+         */
+        @Override
+        public long estimateSize() {
+            return getFence() - current;
+        }
+
+        /**
+         * Reports the spliterator as ordered and exactly sized after splitting.
+         * @return the characteristic flags
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -0,0 +1,233 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to objects, stored in two parallel arrays with
+ * open addressing and linear probing, so lookups neither box the key nor
+ * allocate entry objects. Int keys such as plate codes widen to long, and
+ * the hash mixes all 64 bits, so small keys and keys differing only in
+ * their high half spread alike. Removal shifts later entries back instead of
+ * leaving tombstones. Null values are not allowed; a null slot is empty.
+ * @param <V> the type of the values
+ * @author joshuaH, alexG
+ */
+public class LongMap<V> {
+
+    /** Smallest table length; always a power of two. */
+    private static final int MIN_CAPACITY = 8;
+
+    /** Largest table length the map will ask for. */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** Keys, meaningful only where the matching value is non-null. */
+    private long[] keys;
+
+    /** Values, null for empty slots. */
+    private Object[] values;
+
+    /** Number of entries in the map. */
+    private int size;
+
+    /** Table length minus one, used to wrap probe positions. */
+    private int mask;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map that can hold the given number of entries
+     * before it has to grow.
+     * @param expected the number of entries expected
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public LongMap(int expected) {
+        if (expected < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + expected);
+        }
+        allocate(tableLength(expected));
+    }
+
+    /**
+     * Works out the table length that keeps the load at two thirds or less.
+     * @param entries the number of entries to hold
+     * @return a power of two table length
+     */
+    private static int tableLength(int entries) {
+        long needed = (long) entries * 3 / 2 + 1;
+        if (needed > MAX_CAPACITY) throw new OutOfMemoryError("Map capacity exceeded");
+        int length = MIN_CAPACITY;
+        while (length < needed) length <<= 1;
+        return length;
+    }
+
+    /**
+     * Replaces the tables with empty ones of the given length.
+     * @param length a power of two table length
+     */
+    private void allocate(int length) {
+        keys = new long[length];
+        values = new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Finds the home slot of a key.
+     * @param key the key
+     * @return the first slot to probe
+     */
+    private int home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int) (h ^ (h >>> 32));
+        return (x ^ (x >>> 16)) & mask;
+    }
+
+    /**
+     * Finds the slot holding a key.
+     * @param key the key
+     * @return the slot, or -1 if the key is absent
+     */
+    private int slotOf(long key) {
+        for (int i = home(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value for a key.
+     * @param key the key
+     * @return the value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slotOf(key);
+        return i == -1 ? null : (V) values[i];
+    }
+
+    /**
+     * Checks whether the map holds a key.
+     * @param key the key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key) {
+        return slotOf(key) != -1;
+    }
+
+    /**
+     * Maps a key to a value, replacing any earlier value.
+     * @param key the key
+     * @param value the value, not null
+     * @return the previous value, or null if the key was absent
+     * @throws NullPointerException if value is null
+     */
+    public V put(long key, V value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Maps a key to a value unless the key is already present.
+     * @param key the key
+     * @param value the value, not null
+     * @return the value already present, or null if value was added
+     * @throws NullPointerException if value is null
+     */
+    public V putIfAbsent(long key, V value) {
+        return insert(key, value, false);
+    }
+
+    /**
+     * Shared body of put and putIfAbsent.
+     * @param key the key
+     * @param value the value, not null
+     * @param replace whether an existing value is overwritten
+     * @return the value that was present, or null
+     */
+    @SuppressWarnings("unchecked")
+    private V insert(long key, V value, boolean replace) {
+        if (value == null) throw new NullPointerException("LongMap does not allow null values");
+        int i = home(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                if (replace) values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 3 > values.length * 2) rehash(values.length << 1);
+        return null;
+    }
+
+    /**
+     * Removes a key. Entries after the freed slot in the same probe run are
+     * shifted back so that every lookup still stops at the first empty slot.
+     * @param key the key
+     * @return the removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slotOf(key);
+        if (i == -1) return null;
+        V old = (V) values[i];
+        values[i] = null;
+        size--;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            // move j into the gap unless its home lies between the gap and j
+            if (((j - home(keys[j])) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                values[j] = null;
+                i = j;
+            }
+        }
+        return old;
+    }
+
+    /**
+     * Moves every entry into tables of a new length.
+     * @param length the new power of two table length
+     */
+    private void rehash(int length) {
+        if (length > MAX_CAPACITY) throw new OutOfMemoryError("Map capacity exceeded");
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(length);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = home(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Removes every entry, keeping the current table length.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     * @return true if the map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,265 @@
+package util;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Priority queue from scratch: a binary min-heap in an array, ordered by a
+ * Sort.Comparator. Each element's heap position is tracked, so removing an
+ * arbitrary element takes O(log n) like add and poll, and peek is O(1).
+ * Elements are matched by identity and each object can be queued once;
+ * adding it again throws rather than leaving callers out of step.
+ * @param <E> the type of elements stored in this queue
+ * @author joshuaH, alexG
+ */
+public class PriorityQueue<E> {
+
+    /** Initial capacity of a queue created without a size hint. */
+    private static final int GROW_BY = 4;
+
+    /** Largest array length the queue will ask for. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** The heap: heap[0] is the smallest and heap[i] is no larger than its children. */
+    private Object[] heap;
+
+    /** Position record of the element at the same index of heap. */
+    private Position[] slots;
+
+    /** Current number of elements in the queue. */
+    private int size;
+
+    /** The order of the queue. */
+    private final Sort.Comparator<? super E> cmp;
+
+    /** Heap position of every queued element, updated as elements move. */
+    private final IdentityHashMap<E, Position> positions = new IdentityHashMap<>();
+
+    /**
+     * Mutable heap position, so moving an element does not box a new Integer.
+     */
+    private static final class Position {
+        /** Index in the heap array. */
+        int at;
+
+        /**
+         * Creates a position.
+         * @param at the index in the heap array
+         */
+        Position(int at) {
+            this.at = at;
+        }
+    }
+
+    /**
+     * Constructs an empty queue.
+     * @param cmp the order of the queue, smallest first
+     */
+    public PriorityQueue(Sort.Comparator<? super E> cmp) {
+        this(GROW_BY, cmp);
+    }
+
+    /**
+     * Constructs an empty queue that can hold the given number of elements
+     * before it has to grow.
+     * @param initialCapacity the number of slots to allocate
+     * @param cmp the order of the queue, smallest first
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public PriorityQueue(int initialCapacity, Sort.Comparator<? super E> cmp) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.heap = new Object[initialCapacity];
+        this.slots = new Position[initialCapacity];
+        this.cmp = cmp;
+    }
+
+    /**
+     * Increases the capacity by half its length, or to minCapacity if larger.
+     * @param minCapacity the number of slots required
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Queue capacity exceeded");
+        }
+        int newCapacity = heap.length + (heap.length >> 1);
+        if (newCapacity < GROW_BY) newCapacity = GROW_BY;
+        if (newCapacity < minCapacity || newCapacity > MAX_CAPACITY) newCapacity = minCapacity;
+        heap = Arrays.copyOf(heap, newCapacity);
+        slots = Arrays.copyOf(slots, newCapacity);
+    }
+
+    /**
+     * Adds an element.
+     * @param e the element to add
+     * @throws IllegalArgumentException if this object is already queued
+     */
+    public void add(E e) {
+        if (positions.containsKey(e)) throw new IllegalArgumentException("Element is already queued");
+        if (size == heap.length) grow(size + 1);
+        Position p = new Position(size);
+        positions.put(e, p);
+        heap[size] = e;
+        slots[size] = p;
+        siftUp(size++);
+    }
+
+    /**
+     * Returns the smallest element without removing it.
+     * @return the smallest element, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) heap[0];
+    }
+
+    /**
+     * Removes and returns the smallest element.
+     * @return the smallest element
+     * @throws NoSuchElementException if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0) throw new NoSuchElementException();
+        E first = (E) heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    /**
+     * Removes an element from anywhere in the queue.
+     * @param e the element, compared by identity
+     * @return true if it was queued
+     */
+    public boolean remove(E e) {
+        Position p = positions.get(e);
+        if (p == null) return false;
+        removeAt(p.at);
+        return true;
+    }
+
+    /**
+     * Checks whether an element is queued.
+     * @param e the element, compared by identity
+     * @return true if it is in the queue
+     */
+    public boolean contains(E e) {
+        return positions.containsKey(e);
+    }
+
+    /**
+     * Performs an action on every element, in heap order rather than
+     * smallest first.
+     * @param action the action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        for (int i = 0; i < size; i++) action.accept((E) heap[i]);
+    }
+
+    /**
+     * Removes the element at a heap index by moving the last element into
+     * its place and sifting that element up or down.
+     * @param i the heap index
+     */
+    @SuppressWarnings("unchecked")
+    private void removeAt(int i) {
+        positions.remove((E) heap[i]);
+        int last = --size;
+        if (i != last) move(last, i);
+        heap[last] = null;
+        slots[last] = null;
+        if (i != last) siftDown(siftUp(i));
+    }
+
+    /**
+     * Moves the element at i up while it is smaller than its parent.
+     * @param i the heap index
+     * @return the index the element ends at
+     */
+    @SuppressWarnings("unchecked")
+    private int siftUp(int i) {
+        E e = (E) heap[i];
+        Position p = slots[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (cmp.compare(e, (E) heap[parent]) >= 0) break;
+            move(parent, i);
+            i = parent;
+        }
+        place(e, p, i);
+        return i;
+    }
+
+    /**
+     * Moves the element at i down while it is larger than a child.
+     * @param i the heap index
+     */
+    @SuppressWarnings("unchecked")
+    private void siftDown(int i) {
+        E e = (E) heap[i];
+        Position p = slots[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && cmp.compare((E) heap[right], (E) heap[child]) < 0) child = right;
+            if (cmp.compare(e, (E) heap[child]) <= 0) break;
+            move(child, i);
+            i = child;
+        }
+        place(e, p, i);
+    }
+
+    /**
+     * Moves the element at one heap index to another, updating its position.
+     * @param from the index it is at
+     * @param to the index it moves to
+     */
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        slots[to] = slots[from];
+        slots[to].at = to;
+    }
+
+    /**
+     * Stores an element at a heap index and records its new position.
+     * @param e the element
+     * @param p the element's position record
+     * @param i the heap index
+     */
+    private void place(E e, Position p, int i) {
+        heap[i] = e;
+        slots[i] = p;
+        p.at = i;
+    }
+
+    /**
+     * Removes every element, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        Arrays.fill(slots, 0, size, null);
+        size = 0;
+        positions.clear();
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     * @return the size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     * @return true if the queue has no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
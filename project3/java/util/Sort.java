@@ -1,11 +1,28 @@
 package util;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
 /**
  * Provides static sorting utilities for util.list collections.
  * @author joshuaH, alexG
  */
 public final class Sort {
 
+    /** Ranges at most this long are sorted by insertion sort. */
+    private static final int INSERTION_THRESHOLD = 32;
+
+    /** Ranges at most this long are not split further across threads. */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /** Bits per radix digit. */
+    private static final int RADIX_BITS = 8;
+
+    /** Number of buckets per radix pass. */
+    private static final int RADIX = 1 << RADIX_BITS;
+
     /** Prevents instantiation of utility class. */
     private Sort() {}
 
@@ -20,6 +37,19 @@ public final class Sort {
         int compare(E a, E b);
     }
 
+    /**
+     * Functional interface that maps an element to a numeric sort key.
+     * Elements are ordered by ascending key; composite orderings pack each
+     * field into its own bit range, most significant field highest.
+     * @param <E> the type of objects keyed
+     */
+    public interface KeyExtractor<E> {
+        /**
+         * Returns the sort key of an element.
+         */
+        long key(E e);
+    }
+
     /**
      * Sorts the providedList in ascending order using the
      * selection sort algorithm and the specified comparator.
@@ -41,4 +71,343 @@ public final class Sort {
             }
         }
     }
+
+    /**
+     * Sorts the list in ascending order with a stable merge sort.
+     * Short ranges use insertion sort and two halves already in order are not
+     * merged, so input that is sorted or nearly sorted runs in close to linear
+     * time. Takes O(n log n) comparisons in the worst case.
+     * @param <E>  the element type of the list
+     * @param list the list to sort
+     * @param cmp  the comparator defining sort order
+     */
+    public static <E> void mergeSort(List<E> list, Comparator<E> cmp) {
+        int n = list.size();
+        if (n < 2) return;
+        Object[] a = list.toArray();
+        mergeSort(a, new Object[n], 0, n, cmp);
+        list.replaceContents(a);
+    }
+
+    /**
+     * Sorts the list in ascending order with a stable merge sort whose halves
+     * are sorted in parallel on the common fork-join pool. Lists too small to
+     * benefit are sorted on the calling thread. The comparator must be safe
+     * to call from several threads.
+     * @param <E>  the element type of the list
+     * @param list the list to sort
+     * @param cmp  the comparator defining sort order
+     */
+    public static <E> void parallelSort(List<E> list, Comparator<E> cmp) {
+        int n = list.size();
+        if (n <= PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            mergeSort(list, cmp);
+            return;
+        }
+        Object[] a = list.toArray();
+        ForkJoinPool.commonPool().invoke(new MergeTask<>(a, new Object[n], 0, n, cmp));
+        list.replaceContents(a);
+    }
+
+    /**
+     * Recursively merge sorts a[lo, hi).
+     * @param <E> the element type
+     * @param a   the array to sort
+     * @param buf scratch space at least as long as a
+     * @param lo  first index, inclusive
+     * @param hi  last index, exclusive
+     * @param cmp the comparator defining sort order
+     */
+    private static <E> void mergeSort(Object[] a, Object[] buf, int lo, int hi, Comparator<E> cmp) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(a, lo, hi, cmp);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, buf, lo, mid, cmp);
+        mergeSort(a, buf, mid, hi, cmp);
+        merge(a, buf, lo, mid, hi, cmp);
+    }
+
+    /**
+     * Stable insertion sort of a[lo, hi).
+     * @param <E> the element type
+     * @param a   the array to sort
+     * @param lo  first index, inclusive
+     * @param hi  last index, exclusive
+     * @param cmp the comparator defining sort order
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> void insertionSort(Object[] a, int lo, int hi, Comparator<E> cmp) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object x = a[i];
+            int j = i - 1;
+            while (j >= lo && cmp.compare((E) a[j], (E) x) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = x;
+        }
+    }
+
+    /**
+     * Merges the sorted runs a[lo, mid) and a[mid, hi). Equal elements keep
+     * their order, taking the left run first.
+     * @param <E> the element type
+     * @param a   the array holding both runs
+     * @param buf scratch space at least as long as a
+     * @param lo  start of the left run
+     * @param mid start of the right run
+     * @param hi  end of the right run, exclusive
+     * @param cmp the comparator defining sort order
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> void merge(Object[] a, Object[] buf, int lo, int mid, int hi, Comparator<E> cmp) {
+        if (cmp.compare((E) a[mid - 1], (E) a[mid]) <= 0) return;
+        System.arraycopy(a, lo, buf, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (cmp.compare((E) buf[i], (E) a[j]) <= 0) a[k++] = buf[i++];
+            else a[k++] = a[j++];
+        }
+        while (i < mid) a[k++] = buf[i++];
+    }
+
+    /**
+     * Fork-join task that sorts both halves of a range in parallel, then merges them.
+     * @param <E> the element type
+     */
+    private static final class MergeTask<E> extends RecursiveAction {
+        /** Serialization version; RecursiveAction is Serializable. */
+        private static final long serialVersionUID = 1L;
+        /** The array being sorted. */
+        private final Object[] a;
+        /** Shared scratch space; tasks only touch their own range. */
+        private final Object[] buf;
+        /** First index, inclusive. */
+        private final int lo;
+        /** Last index, exclusive. */
+        private final int hi;
+        /** The comparator defining sort order. */
+        private final Comparator<E> cmp;
+
+        /**
+         * Creates a task for a[lo, hi).
+         * @param a   the array being sorted
+         * @param buf scratch space at least as long as a
+         * @param lo  first index, inclusive
+         * @param hi  last index, exclusive
+         * @param cmp the comparator defining sort order
+         */
+        MergeTask(Object[] a, Object[] buf, int lo, int hi, Comparator<E> cmp) {
+            this.a = a;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.cmp = cmp;
+        }
+
+        /**
+         * Sorts the range, splitting it while it is large enough.
+         */
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                mergeSort(a, buf, lo, hi, cmp);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeTask<>(a, buf, lo, mid, cmp), new MergeTask<>(a, buf, mid, hi, cmp));
+            merge(a, buf, lo, mid, hi, cmp);
+        }
+    }
+
+    /**
+     * Sorts the list by ascending key with a stable LSD radix sort.
+     * Each key is extracted once, then the list is bucketed one byte of the
+     * key at a time; bytes that are the same in every key are skipped, so
+     * keys packed from a few enum ordinals and a date take only a few linear
+     * passes and no comparisons.
+     * @param <E>  the element type of the list
+     * @param list the list to sort
+     * @param key  extracts the sort key of each element
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> void radixSort(List<E> list, KeyExtractor<E> key) {
+        int n = list.size();
+        if (n < 2) return;
+        Object[] a = list.toArray();
+        long[] k = new long[n];
+        for (int i = 0; i < n; i++) {
+            // flip the sign bit so negative keys order before positive ones
+            k[i] = key.key((E) a[i]) ^ Long.MIN_VALUE;
+        }
+        radixSort(k, a);
+        list.replaceContents(a);
+    }
+
+    /**
+     * Stable LSD radix sort of the keys, moving the values along with them.
+     * @param k the keys, compared as unsigned numbers
+     * @param a the values, reordered together with their keys
+     */
+    private static void radixSort(long[] k, Object[] a) {
+        int n = k.length;
+        long diff = 0;
+        for (int i = 1; i < n; i++) diff |= k[i] ^ k[0];
+
+        long[] kBuf = new long[n];
+        Object[] aBuf = new Object[n];
+        int[] count = new int[RADIX + 1];
+        long[] kSrc = k, kDst = kBuf;
+        Object[] aSrc = a, aDst = aBuf;
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            if (((diff >>> shift) & (RADIX - 1)) == 0) continue;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[(int) ((kSrc[i] >>> shift) & (RADIX - 1)) + 1]++;
+            }
+            for (int b = 0; b < RADIX; b++) count[b + 1] += count[b];
+            for (int i = 0; i < n; i++) {
+                int pos = count[(int) ((kSrc[i] >>> shift) & (RADIX - 1))]++;
+                kDst[pos] = kSrc[i];
+                aDst[pos] = aSrc[i];
+            }
+            long[] kt = kSrc; kSrc = kDst; kDst = kt;
+            Object[] at = aSrc; aSrc = aDst; aDst = at;
+        }
+        if (aSrc != a) System.arraycopy(aSrc, 0, a, 0, n);
+    }
+
+    /**
+     * Ranks items by the alphabetical order of a text key, so sort keys can
+     * order by that text without comparing strings. An item's rank is the
+     * number of items whose text is strictly smaller; equal texts share a rank.
+     * @param <E>   the item type
+     * @param items the items, such as an enum's values()
+     * @param text  the text each item is ranked by
+     * @return rank[i] is the rank of items[i], starting at 0
+     */
+    public static <E> int[] ranks(E[] items, Function<? super E, String> text) {
+        int n = items.length;
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) keys[i] = text.apply(items[i]);
+        String[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            // first position of keys[i] in the sorted copy
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].compareTo(keys[i]) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            rank[i] = lo;
+        }
+        return rank;
+    }
+
+    /**
+     * Sorts the list by ascending key, extracting each key exactly once.
+     * The keys are sorted as primitives and the list is then permuted in a
+     * single pass, so the comparator never chases getter chains. Equal keys
+     * keep their original order.
+     * @param <E>  the element type of the list
+     * @param list the list to sort
+     * @param key  extracts the sort key of each element
+     */
+    public static <E> void keyedSort(List<E> list, KeyExtractor<E> key) {
+        int n = list.size();
+        if (n < 2) return;
+        int[] order = order(list, key);
+        Object[] sorted = new Object[n];
+        for (int i = 0; i < n; i++) sorted[i] = list.get(order[i]);
+        list.replaceContents(sorted);
+    }
+
+    /**
+     * Returns the positions of the list's elements in ascending key order,
+     * without changing the list. Equal keys keep their original order.
+     * When the spread of the keys leaves room, each key and its position are
+     * packed into one long and sorted with the primitive parallel sort;
+     * otherwise a stable merge sort runs on the key and position arrays.
+     * @param <E>  the element type of the list
+     * @param list the list to inspect
+     * @param key  extracts the sort key of each element
+     * @return order[i] is the position of the i-th smallest element
+     */
+    public static <E> int[] order(List<E> list, KeyExtractor<E> key) {
+        int n = list.size();
+        long[] k = new long[n];
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            k[i] = key.key(list.get(i));
+            if (k[i] < min) min = k[i];
+            if (k[i] > max) max = k[i];
+        }
+        int[] order = new int[n];
+        if (n == 0) return order;
+
+        int posBits = Integer.SIZE - Integer.numberOfLeadingZeros(n);
+        long spread = max - min;
+        if (spread >= 0 && Long.SIZE - Long.numberOfLeadingZeros(spread) + posBits < Long.SIZE) {
+            long posMask = (1L << posBits) - 1;
+            for (int i = 0; i < n; i++) k[i] = ((k[i] - min) << posBits) | i;
+            Arrays.parallelSort(k);
+            for (int i = 0; i < n; i++) order[i] = (int) (k[i] & posMask);
+            return order;
+        }
+
+        for (int i = 0; i < n; i++) order[i] = i;
+        mergeSort(k, order, new long[n], new int[n], 0, n);
+        return order;
+    }
+
+    /**
+     * Stable merge sort of keys in [lo, hi), moving positions along with them.
+     * @param k    the keys
+     * @param p    the positions paired with the keys
+     * @param kBuf scratch space for keys
+     * @param pBuf scratch space for positions
+     * @param lo   first index, inclusive
+     * @param hi   last index, exclusive
+     */
+    private static void mergeSort(long[] k, int[] p, long[] kBuf, int[] pBuf, int lo, int hi) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            for (int i = lo + 1; i < hi; i++) {
+                long kx = k[i];
+                int px = p[i];
+                int j = i - 1;
+                while (j >= lo && k[j] > kx) {
+                    k[j + 1] = k[j];
+                    p[j + 1] = p[j];
+                    j--;
+                }
+                k[j + 1] = kx;
+                p[j + 1] = px;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(k, p, kBuf, pBuf, lo, mid);
+        mergeSort(k, p, kBuf, pBuf, mid, hi);
+        if (k[mid - 1] <= k[mid]) return;
+        System.arraycopy(k, lo, kBuf, lo, mid - lo);
+        System.arraycopy(p, lo, pBuf, lo, mid - lo);
+        int i = lo, j = mid, w = lo;
+        while (i < mid && j < hi) {
+            if (kBuf[i] <= k[j]) {
+                k[w] = kBuf[i];
+                p[w++] = pBuf[i++];
+            } else {
+                k[w] = k[j];
+                p[w++] = p[j++];
+            }
+        }
+        while (i < mid) {
+            k[w] = kBuf[i];
+            p[w++] = pBuf[i++];
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+import util.List;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that Fleet's plate, campus, make and type indexes stay in step
+ * with the list through add, addAll, set, remove, removeIf and relocate.
+ * @author joshuaH, alexG
+ */
+public class FleetIndexTest {
+
+    /**
+     * Collects vehicles into an identity set, failing on repeats.
+     * @param vehicles the vehicles
+     * @return the set
+     */
+    private static Set<Vehicle> identities(List<Vehicle> vehicles) {
+        Set<Vehicle> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Vehicle v : vehicles) assertTrue(set.add(v), "No vehicle is listed twice");
+        return set;
+    }
+
+    /**
+     * Checks every index of a fleet against a scan of its list.
+     * @param fleet the fleet
+     * @param step the step, for messages
+     */
+    private static void check(Fleet fleet, int step) {
+        String at = "Step " + step;
+        for (Campus c : Campus.values()) {
+            Set<Vehicle> all = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (VehicleType t : VehicleType.values()) {
+                Set<Vehicle> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+                BitSet expectedSlots = new BitSet();
+                Set<Vehicle> firsts = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Vehicle v : fleet) {
+                    if (v.getCampus() == c && v.getType() == t) expected.add(v);
+                }
+                assertEquals(expected, identities(fleet.atCampus(c, t)), at + ", " + c + " " + t);
+                all.addAll(expected);
+                // slotsAt holds the vehicle getByPlate returns for each plate there
+                BitSet slots = fleet.slotsAt(c, t);
+                for (int s = slots.nextSetBit(0); s >= 0; s = slots.nextSetBit(s + 1)) {
+                    Vehicle v = fleet.inSlot(s);
+                    assertNotNull(v, at);
+                    assertTrue(firsts.add(v), at);
+                    assertSame(v, fleet.getByPlateCode(v.plateCode()), at);
+                    expectedSlots.set(s);
+                }
+                for (Vehicle v : expected) {
+                    if (fleet.getByPlateCode(v.plateCode()) == v) assertTrue(firsts.contains(v), at + ", " + v);
+                }
+                assertEquals(expectedSlots, slots);
+            }
+            assertEquals(all, identities(fleet.atCampus(c)), at + ", " + c);
+        }
+        for (Make m : Make.values()) {
+            Set<Vehicle> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Vehicle v : fleet) {
+                if (v.getMake() == m) expected.add(v);
+            }
+            assertEquals(expected, identities(fleet.ofMake(m)), at + ", " + m);
+        }
+        for (VehicleType t : VehicleType.values()) {
+            Set<Vehicle> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Vehicle v : fleet) {
+                if (v.getType() == t) expected.add(v);
+            }
+            assertEquals(expected, identities(fleet.ofType(t)), at + ", " + t);
+        }
+        // getByPlate returns a vehicle still listed with the plate; removal
+        // swaps the last vehicle into the hole, so not always the first one
+        Set<Vehicle> listed = identities(fleet);
+        for (Vehicle v : fleet) {
+            Vehicle indexed = fleet.getByPlate(v.getPlate());
+            assertTrue(listed.contains(indexed), at + ", " + v);
+            assertEquals(v.getPlate(), indexed.getPlate(), at);
+        }
+    }
+
+    @Test
+    public void testRandomChanges() {
+        Random r = new Random(18);
+        Campus[] campuses = Campus.values();
+        Make[] makes = Make.values();
+        Fleet fleet = new Fleet();
+        List<Vehicle> outside = new List<>();
+        for (int step = 0; step < 1500; step++) {
+            // few plates, so several vehicles in the list share one
+            String plate = String.format("%05d%c", r.nextInt(30), "SDX".charAt(r.nextInt(3)));
+            Vehicle made = Vehicle.fromPlateAndBasics(plate, Date.of(1, 1, 2020), makes[r.nextInt(makes.length)],
+                    0, campuses[r.nextInt(campuses.length)]);
+            int op = r.nextInt(16);
+            if (op < 4) {
+                fleet.add(made);
+            } else if (op == 4) {
+                List<Vehicle> more = new List<>();
+                more.add(made);
+                more.add(Vehicle.fromPlateAndBasics("00000S", Date.of(1, 1, 2021), Make.HONDA, 0, Campus.COOK));
+                fleet.addAll(more);
+            } else if (op < 7 && !fleet.isEmpty()) {
+                int i = r.nextInt(fleet.size());
+                outside.add(fleet.get(i));
+                fleet.set(i, made);
+            } else if (op < 9 && !fleet.isEmpty()) {
+                Vehicle v = fleet.get(r.nextInt(fleet.size()));
+                        // remove takes out the first vehicle listed with an equal plate
+                outside.add(fleet.get(fleet.indexOf(v)));
+                fleet.remove(v);
+            } else if (op == 9) {
+                int code = r.nextInt(30);
+                fleet.removeIf(v -> v.plateCode() >> 2 == code);
+            } else if (op < 14 && !fleet.isEmpty()) {
+                fleet.relocate(fleet.get(r.nextInt(fleet.size())), campuses[r.nextInt(campuses.length)]);
+            } else if (!outside.isEmpty()) {
+                // moving a vehicle no longer in the fleet leaves the indexes alone
+                fleet.relocate(outside.get(r.nextInt(outside.size())), campuses[r.nextInt(campuses.length)]);
+            }
+            check(fleet, step);
+        }
+    }
+
+    @Test
+    public void testRelocateKeepsIndexes() {
+        Fleet fleet = new Fleet();
+        Vehicle first = Vehicle.fromPlateAndBasics("00001S", Date.of(1, 1, 2020), Make.FORD, 0, Campus.BUSCH);
+        Vehicle second = Vehicle.fromPlateAndBasics("00001S", Date.of(1, 1, 2021), Make.FORD, 0, Campus.COOK);
+        fleet.add(first);
+        fleet.add(second);
+        fleet.relocate(second, Campus.BUSCH);
+        assertEquals(2, fleet.atCampus(Campus.BUSCH, VehicleType.SEDAN).size());
+        assertTrue(fleet.atCampus(Campus.COOK).isEmpty());
+        fleet.relocate(first, Campus.NEWARK);
+        assertSame(first, fleet.atCampus(Campus.NEWARK).get(0));
+        assertSame(first, fleet.inSlot(fleet.slotsAt(Campus.NEWARK, VehicleType.SEDAN).nextSetBit(0)));
+        assertTrue(fleet.slotsAt(Campus.BUSCH, VehicleType.SEDAN).isEmpty(), "Only the first of a plate has a slot");
+        fleet.remove(first);
+        assertSame(second, fleet.getByPlate("00001S"));
+        assertSame(second, fleet.inSlot(fleet.slotsAt(Campus.BUSCH, VehicleType.SEDAN).nextSetBit(0)));
+        check(fleet, 0);
+    }
+}
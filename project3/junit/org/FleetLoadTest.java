@@ -0,0 +1,207 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that load(Scanner), load(Path) and loadParallel build the same
+ * fleet and report from the same file.
+ * @author joshuaH, alexG
+ */
+public class FleetLoadTest {
+
+    /** Lines that are rejected, each with a different error. */
+    private static final String[] BAD_LINES = {
+        "12345S 1/1/2020 Ford 100",
+        "1234S 1/1/2020 Ford 100 Busch",
+        "12345S 2/30/2021 Ford 100 Busch",
+        "12345S 1/1/2020 Tesla 100 Busch",
+        "12345S 1/1/2020 Ford -5 Busch",
+        "12345S 1/1/2020 Ford 100 Paris",
+        "",
+        " \t ",
+    };
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Writes a fleet file of random lines.
+     * @param seed the random seed
+     * @param crlf true to end lines with CR LF, false for LF
+     * @param finalBreak true to end the last line with a line break
+     * @param length the least number of characters to write
+     * @return the file
+     * @throws IOException if the file cannot be written
+     */
+    private Path writeFleet(long seed, boolean crlf, boolean finalBreak, int length) throws IOException {
+        Random r = new Random(seed);
+        String[] makes = {"Ford", "CHEVY", "toyota", "Honda"};
+        String[] campuses = {"Busch", "Livingston", "cook", "NEWARK", "Camden"};
+        String eol = crlf ? "\r\n" : "\n";
+        StringBuilder sb = new StringBuilder();
+        for (int line = 0; sb.length() < length; line++) {
+            if (line > 0) sb.append(eol);
+            if (line == 1000) {
+                // longer than load(Path)'s first read buffer
+                sb.append("A".repeat(100000)).append(" 1/1/2020 Ford 1 Busch");
+            } else if (r.nextInt(20) == 0) {
+                sb.append(BAD_LINES[r.nextInt(BAD_LINES.length)]);
+            } else {
+                String gap = r.nextBoolean() ? " " : " \t ";
+                // plates repeat now and then, so some lines are duplicates
+                sb.append(String.valueOf(100000 + r.nextInt(100000)), 1, 6).append("SDX".charAt(r.nextInt(3)))
+                        .append(gap).append(1 + r.nextInt(12)).append('/').append(1 + r.nextInt(28))
+                        .append('/').append(1990 + r.nextInt(40))
+                        .append(gap).append(makes[r.nextInt(makes.length)])
+                        .append(gap).append(r.nextInt(200000))
+                        .append(gap).append(campuses[r.nextInt(campuses.length)]);
+                if (r.nextInt(10) == 0) sb.append(" extra fields");
+            }
+        }
+        if (finalBreak) sb.append(eol);
+        Path file = dir.resolve("fleet-" + seed + "-" + length + ".txt");
+        Files.writeString(file, sb);
+        return file;
+    }
+
+    /**
+     * Checks that two fleets hold the same vehicles in the same order.
+     * @param expected the expected fleet
+     * @param actual the fleet to check
+     * @param message what is being compared
+     */
+    private static void assertSameFleet(Fleet expected, Fleet actual, String message) {
+        assertEquals(expected.size(), actual.size(), message);
+        for (int i = 0; i < expected.size(); i++) {
+            Vehicle e = expected.get(i);
+            Vehicle a = actual.get(i);
+            assertEquals(e.toString(), a.toString(), message + ", vehicle " + i);
+            assertEquals(e.getType(), a.getType(), message);
+            assertEquals(e.getCampus(), a.getCampus(), message);
+        }
+    }
+
+    /**
+     * Checks that two reports have the same counts and skipped lines.
+     * @param expected the expected report
+     * @param actual the report to check
+     * @param message what is being compared
+     */
+    private static void assertSameReport(LoadReport expected, LoadReport actual, String message) {
+        assertEquals(expected.toString(), actual.toString(), message);
+        assertEquals(expected.getRejected(), actual.getRejected(), message);
+        for (int i = 0; i < expected.getRejected(); i++) {
+            assertEquals(expected.rejectedLine(i), actual.rejectedLine(i), message + ", skipped line " + i);
+            assertEquals(expected.rejectedError(i), actual.rejectedError(i), message + ", skipped line " + i);
+        }
+    }
+
+    /**
+     * Loads a file with load(Scanner) and load(Path) and compares the results.
+     * Scanner is slow, so this is for files of a few hundred kilobytes.
+     * @param file the fleet file
+     * @throws IOException if the file cannot be read
+     */
+    private static void checkScanner(Path file) throws IOException {
+        Fleet scanned = new Fleet();
+        int loaded;
+        try (Scanner sc = new Scanner(file)) {
+            loaded = scanned.load(sc);
+        }
+        Fleet read = new Fleet();
+        LoadReport report = read.load(file);
+        assertEquals(loaded, report.getLoaded());
+        assertTrue(report.count(LoadError.DUPLICATE_PLATE) > 0, "The file repeats some plates");
+        assertTrue(report.count(LoadError.BAD_PLATE) > 0);
+        assertSameFleet(scanned, read, "load(Path)");
+    }
+
+    /**
+     * Loads a file with load(Path) and loadParallel and compares the results.
+     * @param file the fleet file
+     * @throws IOException if the file cannot be read
+     */
+    private static void checkParallel(Path file) throws IOException {
+        Fleet read = new Fleet();
+        LoadReport report = read.load(file);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Fleet parallel = new Fleet();
+            assertSameReport(report, parallel.loadParallel(file, pool), "loadParallel");
+            assertSameFleet(read, parallel, "loadParallel");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compares the loaders on a small file, then load(Path) and loadParallel
+     * on a file a little over two of loadParallel's smallest chunks, so the
+     * chunk boundaries fall at arbitrary places within lines.
+     * @param seed the random seed
+     * @param crlf true to end lines with CR LF, false for LF
+     * @param finalBreak true to end the last line with a line break
+     * @throws IOException if a file cannot be written or read
+     */
+    private void checkLoaders(long seed, boolean crlf, boolean finalBreak) throws IOException {
+        checkScanner(writeFleet(seed, crlf, finalBreak, 300000));
+        checkParallel(writeFleet(seed, crlf, finalBreak, (2 << 20) + 1000));
+    }
+
+    @Test
+    public void testLineFeeds() throws IOException {
+        checkLoaders(1, false, true);
+    }
+
+    @Test
+    public void testCarriageReturns() throws IOException {
+        checkLoaders(2, true, true);
+    }
+
+    @Test
+    public void testNoFinalLineBreak() throws IOException {
+        checkLoaders(3, false, false);
+        checkLoaders(4, true, false);
+    }
+
+    @Test
+    public void testSmallFiles() throws IOException {
+        String[] texts = {"", "\n", "\r\n", "12345S 1/1/2020 Ford 100 Busch",
+            "12345S 1/1/2020 Ford 100 Busch\r\n12345S 1/1/2020 Ford 100 Busch\r\n\r\n00001X 2/29/2024 Honda 5 Camden"};
+        for (int i = 0; i < texts.length; i++) {
+            Path file = dir.resolve("small-" + i + ".txt");
+            Files.writeString(file, texts[i]);
+            checkSmall(file);
+        }
+    }
+
+    /**
+     * Loads a small file every way and compares the results.
+     * @param file the fleet file
+     * @throws IOException if the file cannot be read
+     */
+    private static void checkSmall(Path file) throws IOException {
+        Fleet scanned = new Fleet();
+        int loaded;
+        try (Scanner sc = new Scanner(file)) {
+            loaded = scanned.load(sc);
+        }
+        Fleet read = new Fleet();
+        LoadReport report = read.load(file);
+        assertEquals(loaded, report.getLoaded(), file.toString());
+        assertSameFleet(scanned, read, file.toString());
+        Fleet parallel = new Fleet();
+        assertSameReport(report, parallel.loadParallel(file), file.toString());
+        assertSameFleet(scanned, parallel, file.toString());
+    }
+}
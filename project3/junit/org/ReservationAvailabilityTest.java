@@ -0,0 +1,148 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests Reservation.findAvailable against a check of every booking, inside
+ * and outside the horizon of per-day bits, and with bookings many years long.
+ * @author joshuaH, alexG
+ */
+public class ReservationAvailabilityTest {
+
+    /** The anchor date the horizon is placed around, as an epoch day. */
+    private static final int ANCHOR = Date.of(6, 15, 2025).epochDay();
+
+    /**
+     * Makes a vehicle at a campus.
+     * @param plate the license plate
+     * @param campus the campus
+     * @return the vehicle
+     */
+    private static Vehicle vehicle(String plate, Campus campus) {
+        return Vehicle.fromPlateAndBasics(plate, Date.of(1, 1, 2020), Make.FORD, 0, campus);
+    }
+
+    /**
+     * Returns the plate codes of a findAvailable result, sorted.
+     * @param found the vehicles found
+     * @return the plate codes
+     */
+    private static TreeSet<Integer> codes(util.List<Vehicle> found) {
+        TreeSet<Integer> result = new TreeSet<>();
+        for (Vehicle v : found) assertTrue(result.add(v.plateCode()), "No vehicle is returned twice");
+        return result;
+    }
+
+    @Test
+    public void testLongBookingsStayCheap() {
+        Fleet fleet = new Fleet();
+        Vehicle a = vehicle("99999X", Campus.BUSCH);
+        Vehicle b = vehicle("00001X", Campus.BUSCH);
+        fleet.add(a);
+        fleet.add(b);
+        Reservation res = new Reservation(0, Date.ofEpochDay(ANCHOR));
+        Booking toFarFuture = new Booking(Date.ofEpochDay(ANCHOR), Date.of(12, 31, 2200), Employee.PATEL, a, Campus.COOK);
+        Booking allTime = new Booking(Date.of(1, 1, 1), Date.of(12, 31, 9999), Employee.LIM, b, Campus.COOK);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 200; i++) {
+                res.add(toFarFuture);
+                res.add(allTime);
+                res.remove(toFarFuture);
+                res.remove(allTime);
+            }
+            res.add(toFarFuture);
+            res.add(allTime);
+        });
+
+        Date soon = Date.ofEpochDay(ANCHOR + 10);
+        assertTrue(res.findAvailable(fleet, Campus.BUSCH, VehicleType.TRUCK, soon, soon.plusDays(5)).isEmpty());
+        Date past = Date.ofEpochDay(ANCHOR - 10);
+        assertEquals(codes(res.findAvailable(fleet, Campus.BUSCH, VehicleType.TRUCK, past, past)).first(),
+                a.plateCode(), "The far-future booking has not begun");
+        Date after = Date.of(1, 1, 2201);
+        assertEquals(codes(res.findAvailable(fleet, Campus.BUSCH, VehicleType.TRUCK, after, after.plusDays(30))).first(),
+                a.plateCode(), "Beyond the horizon, the far-future booking has ended");
+        assertTrue(res.findAvailable(fleet, Campus.BUSCH, VehicleType.TRUCK, past, after).isEmpty(),
+                "A window crossing the horizon sees both bookings");
+
+        res.remove(allTime);
+        assertEquals(codes(res.findAvailable(fleet, Campus.BUSCH, VehicleType.TRUCK, soon, soon)).first(),
+                b.plateCode(), "A cancelled booking frees its vehicle inside the horizon");
+    }
+
+    @Test
+    public void testRandomAgainstEveryBooking() {
+        checkRandom(new Reservation(0, Date.ofEpochDay(ANCHOR)));
+    }
+
+    @Test
+    public void testRandomWithoutHorizon() {
+        checkRandom(new Reservation());
+    }
+
+    /**
+     * Runs random fleet and booking changes, checking findAvailable against
+     * every booking after each search.
+     * @param res an empty reservation list
+     */
+    private static void checkRandom(Reservation res) {
+        Random r = new Random(23);
+        Campus[] campuses = Campus.values();
+        Fleet fleet = new Fleet();
+        ArrayList<Booking> model = new ArrayList<>();
+        // days spread over the past edge of the horizon, its middle and its future edge
+        int[] bases = {ANCHOR - 420, ANCHOR, ANCHOR + 700};
+        for (int step = 0; step < 30000; step++) {
+            int op = r.nextInt(10);
+            int base = bases[r.nextInt(bases.length)];
+            if (op < 2) {
+                String plate = String.format("%05d%c", r.nextInt(40), "SDX".charAt(r.nextInt(3)));
+                fleet.add(vehicle(plate, campuses[r.nextInt(campuses.length)]));
+            } else if (op == 2 && fleet.size() > 0) {
+                fleet.remove(fleet.get(r.nextInt(fleet.size())));
+            } else if (op == 3 && fleet.size() > 0) {
+                fleet.relocate(fleet.get(r.nextInt(fleet.size())), campuses[r.nextInt(campuses.length)]);
+            } else if (op < 6 && fleet.size() > 0) {
+                Vehicle v = fleet.get(r.nextInt(fleet.size()));
+                Date begin = Date.ofEpochDay(base + r.nextInt(60));
+                int length = r.nextInt(50) == 0 ? 5000 : r.nextInt(6);
+                Booking b = new Booking(begin, begin.plusDays(length), Employee.PATEL, v, Campus.COOK);
+                res.add(b);
+                model.add(b);
+            } else if (op == 6 && !model.isEmpty()) {
+                res.remove(model.get(r.nextInt(model.size())));
+                model.clear();
+                for (Booking b : res) model.add(b);
+            } else if (op == 7 && r.nextInt(50) == 0) {
+                res.removeEndedBefore(Date.ofEpochDay(base + r.nextInt(60)));
+                model.clear();
+                for (Booking b : res) model.add(b);
+            } else {
+                Campus c = campuses[r.nextInt(campuses.length)];
+                VehicleType t = VehicleType.values()[r.nextInt(VehicleType.values().length)];
+                Date begin = Date.ofEpochDay(base - 5 + r.nextInt(70));
+                Date end = begin.plusDays(r.nextInt(8));
+                TreeSet<Integer> expected = new TreeSet<>();
+                for (Vehicle listed : fleet) {
+                    Vehicle v = fleet.getByPlateCode(listed.plateCode());
+                    if (v.getCampus() != c || v.getType() != t) continue;
+                    boolean free = true;
+                    for (Booking b : model) {
+                        if (b.getVehicle().plateCode() == v.plateCode()
+                                && end.compareTo(b.getBegin()) >= 0 && begin.compareTo(b.getEnd()) <= 0) free = false;
+                    }
+                    if (free) expected.add(v.plateCode());
+                }
+                assertEquals(expected, codes(res.findAvailable(fleet, c, t, begin, end)), "Step " + step);
+            }
+        }
+    }
+}
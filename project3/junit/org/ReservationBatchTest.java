@@ -0,0 +1,225 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+import util.Date;
+import util.List;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests Reservation.addBatch against a pairwise check of every booking,
+ * and that a booking object can be reserved only once.
+ * @author joshuaH, alexG
+ */
+public class ReservationBatchTest {
+
+    /** Vehicles shared by the tests. */
+    private static final Vehicle[] VEHICLES = new Vehicle[12];
+
+    static {
+        for (int i = 0; i < VEHICLES.length; i++) {
+            VEHICLES[i] = Vehicle.fromPlateAndBasics(String.format("%05d%c", i, "SDX".charAt(i % 3)),
+                    Date.of(1, 1, 2020), Make.FORD, 0, Campus.BUSCH);
+        }
+    }
+
+    /**
+     * Makes a booking.
+     * @param begin first day, as an epoch day
+     * @param end last day, as an epoch day
+     * @param emp the employee
+     * @param v the vehicle
+     * @return the booking
+     */
+    private static Booking booking(int begin, int end, Employee emp, Vehicle v) {
+        return new Booking(Date.ofEpochDay(begin), Date.ofEpochDay(end), emp, v, Campus.COOK);
+    }
+
+    /**
+     * Makes a list of bookings.
+     * @param bookings the bookings
+     * @return a new list holding them in order
+     */
+    private static List<Booking> listOf(Booking... bookings) {
+        List<Booking> list = new List<>();
+        for (Booking b : bookings) list.add(b);
+        return list;
+    }
+
+    @Test
+    public void testCleanBatchIsCommitted() {
+        Reservation res = new Reservation();
+        List<Booking> batch = new List<>();
+        batch.add(booking(100, 102, Employee.PATEL, VEHICLES[0]));
+        batch.add(booking(103, 105, Employee.PATEL, VEHICLES[0]));
+        batch.add(booking(100, 105, Employee.LIM, VEHICLES[1]));
+        BatchReport report = res.addBatch(batch);
+        assertTrue(report.isCommitted());
+        assertEquals(0, report.getRejected());
+        assertEquals(3, res.size());
+        assertFalse(res.isVehicleAvailable(VEHICLES[0], Date.ofEpochDay(105), Date.ofEpochDay(105)));
+    }
+
+    @Test
+    public void testSameBookingTwice() {
+        Reservation res = new Reservation();
+        Booking a = booking(100, 102, Employee.PATEL, VEHICLES[0]);
+        Booking b = booking(200, 202, Employee.LIM, VEHICLES[1]);
+        res.add(a);
+        assertThrows(IllegalArgumentException.class, () -> res.add(a));
+        assertThrows(IllegalArgumentException.class, () -> res.addAll(listOf(b, b)));
+        assertThrows(IllegalArgumentException.class, () -> res.addAll(listOf(b, a)));
+        assertEquals(1, res.size(), "A refused add changes nothing");
+        res.add(b);
+        assertThrows(IllegalArgumentException.class, () -> res.set(0, b), "b is already at position 1");
+        res.set(1, b);
+        assertEquals(2, res.size());
+        assertSame(a, res.earliestEnd());
+        res.remove(a);
+        assertSame(b, res.earliestEnd(), "The index dropped a with the list");
+        res.add(a);
+        assertSame(a, res.earliestEnd());
+        assertEquals(BookingError.VEHICLE_UNAVAILABLE, res.addBatch(listOf(b)).rejectedError(0),
+                "A reserved booking conflicts with itself");
+        Booking c = booking(300, 301, Employee.KAUR, VEHICLES[2]);
+        BatchReport report = res.addBatch(listOf(c, c));
+        assertEquals(2, report.count(BookingError.VEHICLE_BATCH_CONFLICT), "So does one listed twice in a batch");
+        assertEquals(2, res.size());
+    }
+
+    @Test
+    public void testRemovalKeepsReportOrder() {
+        Reservation res = new Reservation();
+        Booking[] bookings = new Booking[4];
+        for (int i = 0; i < bookings.length; i++) {
+            // later begin dates on lower plates, so the two reports disagree
+            bookings[i] = booking(100 - 10 * i, 100 - 10 * i, Employee.PATEL, VEHICLES[7 - 2 * i]);
+            res.add(bookings[i]);
+        }
+        res.printByLocationPlateBegin();
+        res.remove(bookings[3]);
+        String report = res.printByDept();
+        // one employee's bookings tie in printByDept and keep the plate order
+        int at = -1;
+        for (int i = 2; i >= 0; i--) {
+            int next = report.indexOf(bookings[i].toString());
+            assertTrue(next > at, "Booking " + i + " follows the previous plate");
+            at = next;
+        }
+    }
+
+    @Test
+    public void testOneConflictRejectsTheWholeBatch() {
+        Reservation res = new Reservation();
+        res.add(booking(50, 60, Employee.HARPER, VEHICLES[2]));
+        List<Booking> batch = new List<>();
+        batch.add(booking(100, 102, Employee.PATEL, VEHICLES[0]));
+        batch.add(booking(60, 61, Employee.LIM, VEHICLES[2]));
+        batch.add(booking(200, 201, Employee.KAUR, VEHICLES[3]));
+        batch.add(booking(201, 200, Employee.KAUR, VEHICLES[4]));
+        BatchReport report = res.addBatch(batch);
+        assertFalse(report.isCommitted());
+        assertEquals(1, res.size(), "Nothing from the batch was added");
+        assertEquals(2, report.getRejected());
+        assertEquals(1, report.rejectedPosition(0));
+        assertEquals(BookingError.VEHICLE_UNAVAILABLE, report.rejectedError(0));
+        assertEquals(3, report.rejectedPosition(1));
+        assertEquals(BookingError.BAD_DATES, report.rejectedError(1));
+    }
+
+    @Test
+    public void testBothSidesOfAnInBatchOverlapAreReported() {
+        Reservation res = new Reservation();
+        List<Booking> batch = new List<>();
+        // the long booking overlaps the last one, but not the one between them
+        batch.add(booking(10, 30, Employee.PATEL, VEHICLES[0]));
+        batch.add(booking(12, 13, Employee.LIM, VEHICLES[1]));
+        batch.add(booking(30, 31, Employee.KAUR, VEHICLES[0]));
+        batch.add(booking(11, 11, Employee.LIM, VEHICLES[2]));
+        BatchReport report = res.addBatch(batch);
+        assertEquals(2, report.count(BookingError.VEHICLE_BATCH_CONFLICT));
+        assertEquals(0, report.count(BookingError.EMPLOYEE_BATCH_CONFLICT));
+        assertEquals(0, report.rejectedPosition(0));
+        assertEquals(2, report.rejectedPosition(1));
+
+        batch.set(3, booking(13, 14, Employee.LIM, VEHICLES[2]));
+        report = res.addBatch(batch);
+        assertEquals(2, report.count(BookingError.EMPLOYEE_BATCH_CONFLICT));
+    }
+
+    @Test
+    public void testRandomAgainstPairwiseCheck() {
+        Random r = new Random(24);
+        Employee[] employees = Employee.values();
+        for (int round = 0; round < 2000; round++) {
+            Reservation res = new Reservation();
+            ArrayList<Booking> existing = new ArrayList<>();
+            for (int k = r.nextInt(10); k > 0; k--) {
+                int begin = -30 + r.nextInt(80);
+                Booking b = booking(begin, begin + r.nextInt(4), employees[r.nextInt(employees.length)],
+                        VEHICLES[r.nextInt(VEHICLES.length)]);
+                if (res.check(b.getEmployee(), b.getVehicle(), b.getBegin(), b.getEnd()) == null) {
+                    res.add(b);
+                    existing.add(b);
+                }
+            }
+            List<Booking> batch = new List<>();
+            int n = r.nextInt(round % 10 == 0 ? 40 : 6);
+            for (int k = 0; k < n; k++) {
+                int begin = -30 + r.nextInt(80);
+                int end = begin + r.nextInt(6) - (r.nextInt(15) == 0 ? 8 : 0);
+                batch.add(booking(begin, end, employees[r.nextInt(employees.length)],
+                        VEHICLES[r.nextInt(VEHICLES.length)]));
+            }
+
+            BookingError[] expected = new BookingError[n];
+            for (int i = 0; i < n; i++) {
+                Booking x = batch.get(i);
+                ArrayList<BookingError> reasons = new ArrayList<>();
+                if (x.getBegin().compareTo(x.getEnd()) > 0) {
+                    reasons.add(BookingError.BAD_DATES);
+                } else {
+                    for (Booking y : existing) {
+                        if (!overlap(x, y)) continue;
+                        if (y.getVehicle().equals(x.getVehicle())) reasons.add(BookingError.VEHICLE_UNAVAILABLE);
+                        if (y.getEmployee() == x.getEmployee()) reasons.add(BookingError.EMPLOYEE_CONFLICT);
+                    }
+                    for (int j = 0; j < n; j++) {
+                        Booking y = batch.get(j);
+                        if (j == i || y.getBegin().compareTo(y.getEnd()) > 0 || !overlap(x, y)) continue;
+                        if (y.getVehicle().equals(x.getVehicle())) reasons.add(BookingError.VEHICLE_BATCH_CONFLICT);
+                        if (y.getEmployee() == x.getEmployee()) reasons.add(BookingError.EMPLOYEE_BATCH_CONFLICT);
+                    }
+                }
+                expected[i] = reasons.isEmpty() ? null : Collections.min(reasons);
+            }
+
+            int before = res.size();
+            BatchReport report = res.addBatch(batch);
+            BookingError[] actual = new BookingError[n];
+            for (int k = 0; k < report.getRejected(); k++) {
+                if (k > 0) assertTrue(report.rejectedPosition(k) > report.rejectedPosition(k - 1), "Batch order");
+                actual[report.rejectedPosition(k)] = report.rejectedError(k);
+            }
+            assertArrayEquals(expected, actual, "Round " + round + ": " + Arrays.toString(expected));
+            boolean clean = report.getRejected() == 0;
+            assertEquals(clean, report.isCommitted());
+            assertEquals(before + (clean ? n : 0), res.size());
+        }
+    }
+
+    /**
+     * Checks whether two bookings share a day.
+     * @param a one booking
+     * @param b the other booking
+     * @return true if their closed date ranges overlap
+     */
+    private static boolean overlap(Booking a, Booking b) {
+        return a.getEnd().compareTo(b.getBegin()) >= 0 && a.getBegin().compareTo(b.getEnd()) <= 0;
+    }
+}
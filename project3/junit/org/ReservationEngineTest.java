@@ -0,0 +1,188 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import util.Date;
+import util.List;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ReservationEngine against one Reservation given the same bookings,
+ * and checks that batches from several threads never double-book.
+ * @author joshuaH, alexG
+ */
+public class ReservationEngineTest {
+
+    /** Number of vehicles in the fleet file. */
+    private static final int VEHICLES = 40;
+
+    /** First day of every booking, as an epoch day. */
+    private static final int FIRST = Date.of(1, 1, 2025).epochDay();
+
+    /**
+     * Anchor date whose per-day bits begin 30 days after FIRST, so searches
+     * near FIRST use both the bits and the interval trees.
+     */
+    private static final Date ANCHOR = Date.ofEpochDay(FIRST + 30 + 366);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Writes a fleet file of VEHICLES vehicles, spread over the campuses,
+     * and loads it into a new engine.
+     * @param stripes the engine's stripe count
+     * @param anchor the engine's anchor date, or null for no per-day bits
+     * @return the engine
+     * @throws IOException if the file cannot be written
+     */
+    private ReservationEngine engine(int stripes, Date anchor) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        String[] campuses = {"Busch", "Livingston", "Cook"};
+        for (int i = 0; i < VEHICLES; i++) {
+            sb.append(String.format("%05d%c 1/1/2020 Ford 100 %s%n", i, "SDX".charAt(i % 3), campuses[i % 2]));
+        }
+        Path file = dir.resolve("fleet.txt");
+        Files.writeString(file, sb);
+        ReservationEngine engine = new ReservationEngine(stripes, anchor);
+        assertEquals(VEHICLES, engine.loadFleet(file).getLoaded());
+        return engine;
+    }
+
+    /**
+     * Returns a vehicle of the engine's fleet.
+     * @param engine the engine
+     * @param i the vehicle number
+     * @return the vehicle
+     */
+    private static Vehicle vehicle(ReservationEngine engine, int i) {
+        return engine.getVehicle(String.format("%05d%c", i, "SDX".charAt(i % 3)));
+    }
+
+    /**
+     * Makes a random booking of up to a week within 60 days.
+     * @param engine the engine whose vehicles are booked
+     * @param r the random source
+     * @return the booking
+     */
+    private static Booking randomBooking(ReservationEngine engine, Random r) {
+        Employee[] employees = Employee.values();
+        int begin = FIRST + r.nextInt(60);
+        int end = begin + r.nextInt(8) - 1;
+        return new Booking(Date.ofEpochDay(begin), Date.ofEpochDay(end), employees[r.nextInt(employees.length)],
+                vehicle(engine, r.nextInt(VEHICLES)), Campus.COOK);
+    }
+
+    @Test
+    public void testBatchesMatchOneReservation() throws IOException {
+        Random r = new Random(25);
+        ReservationEngine engine = engine(8, ANCHOR);
+        Reservation res = new Reservation(0, ANCHOR);
+        for (int step = 0; step < 3000; step++) {
+            if (r.nextInt(4) == 0) {
+                Booking b = randomBooking(engine, r);
+                BookingError expected = res.check(b.getEmployee(), b.getVehicle(), b.getBegin(), b.getEnd());
+                assertEquals(expected, engine.book(b), "Step " + step);
+                if (expected == null) res.add(b);
+            } else if (r.nextInt(3) == 0 && !res.isEmpty()) {
+                Booking b = res.get(r.nextInt(res.size()));
+                assertSame(b, engine.cancel(b.getVehicle().getPlate(), b.getBegin(), b.getEnd()), "Step " + step);
+                res.remove(b);
+            } else {
+                List<Booking> batch = new List<>();
+                for (int k = 1 + r.nextInt(5); k > 0; k--) batch.add(randomBooking(engine, r));
+                BatchReport expected = res.addBatch(batch);
+                assertEquals(expected.toString(), engine.addBatch(batch).toString(), "Step " + step);
+            }
+            assertEquals(res.size(), engine.snapshotReservations().size());
+            Booking earliest = engine.earliestEnd();
+            if (res.isEmpty()) assertNull(earliest);
+            else assertEquals(res.earliestEnd().getEnd(), earliest.getEnd());
+        }
+    }
+
+    @Test
+    public void testFindAvailableMatchesOneReservation() throws IOException {
+        checkFindAvailable(engine(4, ANCHOR));
+    }
+
+    @Test
+    public void testFindAvailableWithoutHorizon() throws IOException {
+        checkFindAvailable(engine(4, null));
+    }
+
+    /**
+     * Books at random through an engine and a Reservation, then checks that
+     * findAvailable agrees with isVehicleAvailable for random windows.
+     * @param engine an engine with the fleet loaded and no bookings
+     */
+    private static void checkFindAvailable(ReservationEngine engine) {
+        Random r = new Random(26);
+        Reservation res = new Reservation();
+        for (int i = 0; i < 300; i++) {
+            Booking b = randomBooking(engine, r);
+            if (engine.book(b) == null) res.add(b);
+        }
+        for (int q = 0; q < 500; q++) {
+            Campus c = Campus.values()[r.nextInt(Campus.values().length)];
+            VehicleType t = VehicleType.values()[r.nextInt(VehicleType.values().length)];
+            Date begin = Date.ofEpochDay(FIRST - 5 + r.nextInt(70));
+            Date end = begin.plusDays(r.nextInt(8));
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < VEHICLES; i++) {
+                Vehicle v = vehicle(engine, i);
+                if (v.getCampus() == c && v.getType() == t && res.isVehicleAvailable(v, begin, end)) {
+                    expected.add(v.plateCode());
+                }
+            }
+            TreeSet<Integer> found = new TreeSet<>();
+            for (Vehicle v : engine.findAvailable(c, t, begin, end)) found.add(v.plateCode());
+            assertEquals(expected, found, "Query " + q);
+        }
+    }
+
+    @Test
+    public void testConcurrentBatchesNeverDoubleBook() throws Exception {
+        ReservationEngine engine = engine(4, ANCHOR);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            ArrayList<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Random r = new Random(t);
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        if (r.nextInt(3) == 0) {
+                            engine.book(randomBooking(engine, r));
+                        } else {
+                            List<Booking> batch = new List<>();
+                            for (int k = 1 + r.nextInt(4); k > 0; k--) batch.add(randomBooking(engine, r));
+                            engine.addBatch(batch);
+                        }
+                        if (i % 200 == 0) engine.printByDept();
+                    }
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        List<Booking> all = engine.snapshotReservations();
+        Reservation check = new Reservation(all.size());
+        for (Booking b : all) {
+            assertNull(check.check(b.getEmployee(), b.getVehicle(), b.getBegin(), b.getEnd()),
+                    "No vehicle or employee is booked twice on a day");
+            check.add(b);
+        }
+    }
+}
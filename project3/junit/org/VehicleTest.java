@@ -0,0 +1,54 @@
+package org.example.project3_v3;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that validatePlate and encodePlate accept the same plates.
+ * @author joshuaH, alexG
+ */
+public class VehicleTest {
+
+    /**
+     * Checks that a plate is accepted by both methods or by neither.
+     * @param plate the plate
+     */
+    private static void checkAgree(String plate) {
+        boolean valid = Vehicle.validatePlate(plate) == null;
+        int code = Vehicle.encodePlate(plate);
+        assertEquals(valid, code >= 0, "Plate \"" + plate + "\"");
+        if (valid) {
+            assertEquals(code, Vehicle.encodePlate(" " + plate + " ", 1, 7), "A plate within other text");
+        }
+    }
+
+    @Test
+    public void testKnownPlates() {
+        String[] plates = {"12345S", "00000d", "99999X", "12345", "123456S", "1234AS", "12345Q",
+            // Arabic-Indic, fullwidth and Devanagari digits pass Character.isDigit but are not plates
+            "\u0661\u0662\u0663\u0664\u0665S", "\uff11\uff12\uff13\uff14\uff15S", "1234\u0967D",
+            "1234 S", "-1234S", "+1234X", ""};
+        for (String plate : plates) checkAgree(plate);
+        assertNull(Vehicle.validatePlate("00000d"));
+        assertNotNull(Vehicle.validatePlate("\u0661\u0662\u0663\u0664\u0665S"));
+        assertEquals(Vehicle.encodePlate("12345S"), Vehicle.encodePlate("12345s"), "The type letter may be lower case");
+        assertEquals(-1, Vehicle.encodePlate(null));
+    }
+
+    @Test
+    public void testRandomPlates() {
+        Random r = new Random(15);
+        String chars = "0123456789SDXsdxQ \u0660\u0669\uff10";
+        for (int n = 0; n < 20000; n++) {
+            char[] plate = new char[4 + r.nextInt(4)];
+            for (int i = 0; i < plate.length; i++) {
+                // mostly plate-shaped, so many of them are valid
+                plate[i] = r.nextInt(8) == 0 || i >= 5 ? chars.charAt(r.nextInt(chars.length())) : (char) ('0' + r.nextInt(10));
+            }
+            checkAgree(new String(plate));
+        }
+    }
+}
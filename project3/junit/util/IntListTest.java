@@ -0,0 +1,91 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests IntList against an ArrayList of Integer.
+ * @author joshuaH, alexG
+ */
+public class IntListTest {
+
+    @Test
+    public void testRandomAgainstArrayList() {
+        Random r = new Random(6);
+        IntList list = new IntList(2);
+        ArrayList<Integer> model = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            int v = r.nextInt(50) - 25;
+            int op = r.nextInt(10);
+            if (op < 4) {
+                list.add(v);
+                model.add(v);
+            } else if (op == 4) {
+                IntList more = new IntList();
+                for (int k = r.nextInt(5); k > 0; k--) {
+                    more.add(k);
+                    model.add(k);
+                }
+                list.addAll(more);
+            } else if (op < 7 && !model.isEmpty()) {
+                int i = r.nextInt(model.size());
+                list.set(i, v);
+                model.set(i, v);
+            } else if (op < 9) {
+                int i = model.indexOf(v);
+                assertEquals(i != -1, list.removeValue(v), "removeValue at step " + step);
+                if (i != -1) {
+                    // the last value moves into the hole
+                    int last = model.remove(model.size() - 1);
+                    if (i < model.size()) model.set(i, last);
+                }
+            } else if (r.nextInt(100) == 0) {
+                list.clear();
+                model.clear();
+            }
+            assertEquals(model.size(), list.size());
+            assertEquals(model.indexOf(v), list.indexOf(v), "indexOf at step " + step);
+        }
+        int[] array = list.toArray();
+        for (int i = 0; i < model.size(); i++) {
+            assertEquals(model.get(i), list.get(i));
+            assertEquals(model.get(i), array[i]);
+        }
+        assertEquals(model.stream().mapToLong(Integer::longValue).sum(), list.stream().asLongStream().sum());
+        list.sort();
+        model.sort(null);
+        for (int i = 0; i < model.size(); i++) assertEquals(model.get(i), list.get(i));
+    }
+
+    @Test
+    public void testIndexOutOfBounds() {
+        IntList list = new IntList();
+        list.add(1);
+        list.add(2);
+        for (int index : new int[] {-1, 2, Integer.MIN_VALUE}) {
+            IndexOutOfBoundsException get = assertThrows(IndexOutOfBoundsException.class, () -> list.get(index));
+            assertEquals("Index: " + index + ", size: 2", get.getMessage());
+            assertThrows(IndexOutOfBoundsException.class, () -> list.set(index, 0));
+        }
+        assertEquals(1, list.get(0), "A failed set changes nothing");
+        assertEquals(2, list.get(1));
+    }
+
+    @Test
+    public void testIteratorIsFailFast() {
+        IntList list = new IntList();
+        for (int i = 0; i < 4; i++) list.add(i);
+        PrimitiveIterator.OfInt it = list.iterator();
+        assertEquals(0, it.nextInt());
+        list.set(0, 9);
+        assertEquals(1, it.nextInt(), "set is not a structural change");
+        list.add(4);
+        assertThrows(ConcurrentModificationException.class, it::nextInt);
+    }
+}
@@ -0,0 +1,102 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests IntervalTree against a plain list of intervals.
+ * @author joshuaH, alexG
+ */
+public class IntervalTreeTest {
+
+    /** An interval and its value, for the reference model. */
+    private record Span(int lo, int hi, Object value) {
+        boolean overlaps(int qlo, int qhi) {
+            return qlo <= hi && lo <= qhi;
+        }
+    }
+
+    @Test
+    public void testClosedEndpoints() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, "a");
+        assertTrue(tree.overlaps(20, 25), "Shared end day overlaps");
+        assertTrue(tree.overlaps(5, 10), "Shared begin day overlaps");
+        assertFalse(tree.overlaps(21, 30), "Day after end is free");
+        assertFalse(tree.overlaps(1, 9), "Day before begin is free");
+        assertEquals("a", tree.findOverlap(15, 15));
+    }
+
+    @Test
+    public void testRemoveMatchesIdentityAmongEqualStarts() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        String[] values = new String[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String("v");
+            tree.insert(7, 7 + i, values[i]);
+        }
+        // rotations spread equal starts over both sides of a node
+        for (int i = values.length - 1; i >= 0; i -= 2) {
+            assertTrue(tree.remove(7, values[i]), "Removes the exact object " + i);
+        }
+        assertFalse(tree.remove(7, new String("v")), "An equal but different object is not removed");
+        assertEquals(values.length / 2, tree.size());
+        assertFalse(tree.overlaps(7 + values.length - 1, 1000), "Longest removed interval is gone");
+    }
+
+    @Test
+    public void testInvertedIntervalNeverOverlapsADay() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(20, 10, "x");
+        for (int day = 0; day < 30; day++) {
+            assertFalse(tree.overlaps(day, day), "Day " + day);
+        }
+        assertTrue(tree.overlaps(5, 25), "A window containing both ends overlaps");
+        assertTrue(tree.remove(20, "x"));
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    public void testRandomAgainstList() {
+        Random r = new Random(19);
+        IntervalTree<Object> tree = new IntervalTree<>();
+        ArrayList<Span> model = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            int op = r.nextInt(3);
+            if (op == 0 || model.isEmpty()) {
+                int lo = r.nextInt(500);
+                Span s = new Span(lo, lo + r.nextInt(20) - 2, new Object());
+                tree.insert(s.lo, s.hi, s.value);
+                model.add(s);
+            } else if (op == 1) {
+                Span s = model.remove(r.nextInt(model.size()));
+                assertTrue(tree.remove(s.lo, s.value), "Removes a stored interval");
+            } else {
+                int qlo = r.nextInt(520);
+                int qhi = qlo + r.nextInt(10);
+                ArrayList<Object> expected = new ArrayList<>();
+                for (Span s : model) {
+                    if (s.overlaps(qlo, qhi)) expected.add(s.value);
+                }
+                ArrayList<Object> found = new ArrayList<>();
+                int[] lastLo = {Integer.MIN_VALUE};
+                tree.forEachOverlap(qlo, qhi, v -> found.add(v));
+                for (Object v : found) {
+                    Span s = model.stream().filter(m -> m.value == v).findFirst().orElseThrow();
+                    assertTrue(s.lo >= lastLo[0], "Visited in order of start");
+                    lastLo[0] = s.lo;
+                }
+                assertEquals(expected.size(), found.size(), "Same overlap count at step " + step);
+                assertTrue(found.containsAll(expected));
+                assertEquals(!expected.isEmpty(), tree.overlaps(qlo, qhi));
+                Object any = tree.findOverlap(qlo, qhi);
+                assertTrue(any == null ? expected.isEmpty() : expected.contains(any));
+            }
+            assertEquals(model.size(), tree.size());
+        }
+    }
+}
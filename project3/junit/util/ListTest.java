@@ -0,0 +1,126 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests List, mainly the bookkeeping of the hash index, against ArrayList.
+ * @author joshuaH, alexG
+ */
+public class ListTest {
+
+    /**
+     * Checks that a list holds the model's elements in the same order, and
+     * that indexOf and contains agree with a scan of the list for every value.
+     * @param list the list
+     * @param model the expected elements
+     * @param values the largest value used, exclusive
+     * @param step the step, for messages
+     */
+    private static void check(List<Integer> list, ArrayList<Integer> model, int values, int step) {
+        assertEquals(model.size(), list.size(), "Size at step " + step);
+        for (int i = 0; i < model.size(); i++) {
+            assertEquals(model.get(i), list.get(i), "Element " + i + " at step " + step);
+        }
+        for (int v = 0; v < values; v++) {
+            assertEquals(model.indexOf(v), list.indexOf(v), "indexOf(" + v + ") at step " + step);
+            assertEquals(model.contains(v), list.contains(v));
+        }
+    }
+
+    /**
+     * Runs random adds, sets and removes on a list and on an ArrayList kept
+     * in the order the list should have, turning the hash index on part way.
+     * @param preserveOrder whether removal keeps the order
+     * @param seed the random seed
+     */
+    private static void checkRandom(boolean preserveOrder, long seed) {
+        Random r = new Random(seed);
+        // few values, so most of them are stored several times
+        int values = 12;
+        List<Integer> list = new List<>();
+        list.setPreserveOrder(preserveOrder);
+        ArrayList<Integer> model = new ArrayList<>();
+        int indexAt = r.nextInt(2000);
+        for (int step = 0; step < 6000; step++) {
+            if (step == indexAt) {
+                list.enableHashIndex();
+                assertTrue(list.isHashIndexed());
+            }
+            int v = r.nextInt(values);
+            int op = r.nextInt(20);
+            if (op < 7) {
+                list.add(v);
+                model.add(v);
+            } else if (op < 9) {
+                List<Integer> more = new List<>();
+                for (int k = r.nextInt(4); k > 0; k--) {
+                    int w = r.nextInt(values);
+                    more.add(w);
+                    model.add(w);
+                }
+                list.addAll(more);
+            } else if (op < 12 && !model.isEmpty()) {
+                int i = r.nextInt(model.size());
+                list.set(i, v);
+                model.set(i, v);
+            } else if (op < 18) {
+                list.remove(v);
+                int i = model.indexOf(v);
+                if (i >= 0 && preserveOrder) {
+                    model.remove(i);
+                } else if (i >= 0) {
+                    // the last element moves into the hole
+                    int last = model.remove(model.size() - 1);
+                    if (i < model.size()) model.set(i, last);
+                }
+            } else if (op == 18) {
+                int m = r.nextInt(5) + 2;
+                int rest = r.nextInt(m);
+                int before = model.size();
+                model.removeIf(x -> x % m == rest);
+                assertEquals(before - model.size(), list.removeIf(x -> x % m == rest));
+            } else if (!model.isEmpty()) {
+                // a filter that throws part way leaves the list as it was
+                int calls = r.nextInt(model.size());
+                int[] seen = {0};
+                assertThrows(IllegalStateException.class, () -> list.removeIf(x -> {
+                    if (seen[0]++ == calls) throw new IllegalStateException();
+                    return x % 2 == 0;
+                }));
+            }
+            check(list, model, values, step);
+        }
+    }
+
+    @Test
+    public void testRandomSwapRemove() {
+        for (long seed = 0; seed < 5; seed++) checkRandom(false, seed);
+    }
+
+    @Test
+    public void testRandomPreserveOrder() {
+        for (long seed = 0; seed < 5; seed++) checkRandom(true, seed);
+    }
+
+    @Test
+    public void testDuplicatesWithIndex() {
+        List<String> list = new List<>();
+        list.enableHashIndex();
+        list.setPreserveOrder(true);
+        for (String s : new String[] {"a", "b", "a", "c", "a"}) list.add(s);
+        list.remove("a");
+        assertEquals(1, list.indexOf("a"), "The next occurrence becomes the first");
+        list.set(1, "b");
+        assertEquals(3, list.indexOf("a"));
+        assertEquals(0, list.indexOf("b"));
+        assertEquals(3, list.removeIf(s -> !s.equals("c")));
+        assertEquals(0, list.indexOf("c"));
+        assertFalse(list.contains("a"));
+        assertFalse(list.contains("b"));
+    }
+}
@@ -0,0 +1,130 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests LongMap, mainly removal with backward shifting, against HashMap,
+ * for int keys like plate codes and for keys using all 64 bits.
+ * @author joshuaH, alexG
+ */
+public class LongMapTest {
+
+    /**
+     * A way of turning small numbers into keys.
+     * @param name the name shown for the test
+     * @param key the key for each number
+     */
+    record Keys(String name, IntToLongFunction key) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Returns the key families: int keys as Fleet and BookingIndex use them,
+     * keys differing only in their high half, and keys near the extremes.
+     * @return the key families
+     */
+    static Stream<Keys> keys() {
+        return Stream.of(
+                // odd multipliers, so the int products stay distinct when they wrap
+                new Keys("int keys", i -> i * 1048577),
+                new Keys("negative int keys", i -> -65535 * i - 1),
+                new Keys("high half only", i -> (long) i << 32),
+                new Keys("top bits only", i -> (long) i << 44),
+                new Keys("near the extremes", i -> i % 2 == 0 ? Long.MIN_VALUE + i : Long.MAX_VALUE - i));
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        LongMap<String> map = new LongMap<>();
+        assertNull(map.put(5, "a"));
+        assertEquals("a", map.putIfAbsent(5, "b"), "putIfAbsent keeps the first value");
+        assertEquals("a", map.put(5, "c"), "put returns the replaced value");
+        assertEquals("c", map.remove(5));
+        assertNull(map.remove(5), "Second remove finds nothing");
+        assertTrue(map.isEmpty());
+        assertThrows(NullPointerException.class, () -> map.put(1, null), "Null values are refused");
+        assertThrows(IllegalArgumentException.class, () -> new LongMap<>(-1));
+    }
+
+    @Test
+    public void testKeysDifferingInOneHalf() {
+        LongMap<String> map = new LongMap<>();
+        long[] keys = {0, 1, 1L << 32, (1L << 32) + 1, -1, 0xFFFFFFFFL, 0xFFFFFFFFL << 32,
+            Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (long key : keys) assertNull(map.put(key, Long.toHexString(key)), "Key " + key + " is new");
+        assertEquals(keys.length, map.size());
+        for (long key : keys) assertEquals(Long.toHexString(key), map.get(key));
+        assertNull(map.get(2L << 32), "An absent key with a present low half");
+        assertNull(map.get(0x80000000L), "An int key is not its unsigned value");
+    }
+
+    @ParameterizedTest
+    @MethodSource("keys")
+    public void testRemoveKeepsEveryProbeRunReachable(Keys k) {
+        // a full table just under the growth limit, so probe runs are long and wrap
+        LongMap<Integer> map = new LongMap<>(40);
+        long[] keys = new long[40];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = k.key().applyAsLong(i);
+            map.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i += 3) {
+            assertEquals(i, map.remove(keys[i]));
+            for (int j = 0; j < keys.length; j++) {
+                boolean removed = j <= i && j % 3 == 0;
+                assertEquals(removed ? null : Integer.valueOf(j), map.get(keys[j]),
+                        "Key " + j + " after removing " + i);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("keys")
+    public void testRandomAgainstHashMap(Keys k) {
+        Random r = new Random(22);
+        LongMap<Integer> map = new LongMap<>();
+        HashMap<Long, Integer> model = new HashMap<>();
+        for (int step = 0; step < 100000; step++) {
+            long key = k.key().applyAsLong(r.nextInt(3000));
+            switch (r.nextInt(4)) {
+                case 0 -> assertEquals(model.put(key, step), map.put(key, step));
+                case 1 -> assertEquals(model.putIfAbsent(key, step), map.putIfAbsent(key, step));
+                case 2 -> assertEquals(model.remove(key), map.remove(key), "remove at step " + step);
+                default -> {
+                    assertEquals(model.get(key), map.get(key), "get at step " + step);
+                    assertEquals(model.containsKey(key), map.containsKey(key));
+                }
+            }
+            assertEquals(model.size(), map.size());
+        }
+        for (long key : model.keySet()) assertEquals(model.get(key), map.get(key));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(model.keySet().iterator().next()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("keys")
+    public void testKeysSpread(Keys k) {
+        // a hash that dropped some of the bits would put all of one family in
+        // a single probe run, and this would take minutes instead of milliseconds
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            LongMap<Integer> map = new LongMap<>();
+            for (int i = 0; i < 200000; i++) map.put(k.key().applyAsLong(i), i);
+            for (int i = 0; i < 200000; i++) assertEquals(i, map.get(k.key().applyAsLong(i)));
+        });
+    }
+}
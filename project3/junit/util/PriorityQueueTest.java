@@ -0,0 +1,103 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests PriorityQueue, mainly removal from the middle of the heap, against
+ * a plain list.
+ * @author joshuaH, alexG
+ */
+public class PriorityQueueTest {
+
+    /** A boxed priority, compared by identity like the queue does. */
+    private static final class Item {
+        /** The priority. */
+        private final int priority;
+
+        Item(int priority) {
+            this.priority = priority;
+        }
+
+        int priority() {
+            return priority;
+        }
+    }
+
+    @Test
+    public void testIdentityMembership() {
+        PriorityQueue<Item> queue = new PriorityQueue<>((a, b) -> Integer.compare(a.priority(), b.priority()));
+        Item a = new Item(1);
+        Item twin = new Item(1);
+        queue.add(a);
+        assertThrows(IllegalArgumentException.class, () -> queue.add(a), "The same object is queued once");
+        assertEquals(1, queue.size());
+        queue.add(twin);
+        assertEquals(2, queue.size(), "An equal object is a different element");
+        assertTrue(queue.remove(twin));
+        assertFalse(queue.remove(twin));
+        assertSame(a, queue.peek());
+        assertSame(a, queue.poll());
+        assertNull(queue.peek());
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+
+    @Test
+    public void testRemoveFromMiddleKeepsHeapOrder() {
+        PriorityQueue<Item> queue = new PriorityQueue<>(0, (a, b) -> Integer.compare(a.priority(), b.priority()));
+        ArrayList<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Item it = new Item((i * 37) % 100);
+            items.add(it);
+            queue.add(it);
+        }
+        // removing a leaf's replacement can require a sift up as well as down
+        for (int i = 0; i < items.size(); i += 2) assertTrue(queue.remove(items.get(i)));
+        int last = Integer.MIN_VALUE;
+        int count = 0;
+        while (!queue.isEmpty()) {
+            Item it = queue.poll();
+            assertTrue(it.priority() >= last, "Polled in priority order");
+            assertFalse(queue.contains(it));
+            last = it.priority();
+            count++;
+        }
+        assertEquals(50, count);
+    }
+
+    @Test
+    public void testRandomAgainstList() {
+        Random r = new Random(21);
+        PriorityQueue<Item> queue = new PriorityQueue<>((a, b) -> Integer.compare(a.priority(), b.priority()));
+        ArrayList<Item> model = new ArrayList<>();
+        for (int step = 0; step < 50000; step++) {
+            int op = r.nextInt(4);
+            if (op < 2 || model.isEmpty()) {
+                Item it = new Item(r.nextInt(1000));
+                queue.add(it);
+                model.add(it);
+            } else if (op == 2) {
+                Item it = model.remove(r.nextInt(model.size()));
+                assertTrue(queue.remove(it), "remove at step " + step);
+            } else {
+                Item it = queue.poll();
+                assertTrue(model.remove(it), "Polled a queued item");
+                for (Item other : model) assertTrue(other.priority() >= it.priority(), "Polled the smallest");
+            }
+            assertEquals(model.size(), queue.size());
+            if (!model.isEmpty()) {
+                int min = Integer.MAX_VALUE;
+                for (Item it : model) min = Math.min(min, it.priority());
+                assertEquals(min, queue.peek().priority(), "peek at step " + step);
+            }
+        }
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(model.get(0)));
+    }
+}